@@ -0,0 +1,123 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArrayBinarySearchTreeTest {
+    @Test
+    void size() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>();
+
+        Assertions.assertEquals(0, bst.size());
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(2);
+        bst.add(4);
+        bst.add(10);
+        bst.add(8);
+        bst.add(12);
+        bst.add(12);
+
+        Assertions.assertEquals(7, bst.size());
+    }
+
+    @Test
+    void containsAddedElement() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>();
+
+        bst.add(7);
+
+        Assertions.assertTrue(bst.contains(7));
+        Assertions.assertFalse(bst.contains(2));
+    }
+
+    @Test
+    void removeRootWithDescendants() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(2);
+        bst.add(4);
+        bst.add(10);
+        bst.add(8);
+        bst.add(12);
+
+        Assertions.assertTrue(bst.remove(7));
+        Assertions.assertFalse(bst.remove(7));
+        Assertions.assertEquals("[2, 3, 4, 8, 10, 12]", bst.toStringArray());
+    }
+
+    @Test
+    void clear() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+
+        bst.clear();
+
+        Assertions.assertTrue(bst.isEmpty());
+        Assertions.assertEquals("[]", bst.toStringArray());
+    }
+
+    @Test
+    void heightImbalancedTree() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>();
+
+        bst.add(15);
+        bst.add(7);
+        bst.add(30);
+        bst.add(20);
+        bst.add(19);
+        bst.add(35);
+
+        Assertions.assertEquals(4, bst.height());
+    }
+
+    @Test
+    void balancedHeightSortedInsertion() {
+        ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>(true);
+        int n = 1 << 20;
+
+        for (int i = 0; i < n; i++) {
+            bst.add(i);
+        }
+
+        // The height of an AVL tree is less than 1.4405 * log2(n + 2) - 0.3277
+        Assertions.assertEquals(n, bst.size());
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void randomOperations() {
+        for (boolean balanced : new boolean[]{false, true}) {
+            Random rng = new Random();
+            ArrayBinarySearchTree<Integer> bst = new ArrayBinarySearchTree<>(balanced);
+            TreeSet<Integer> expected = new TreeSet<>();
+
+            // Removed nodes are reused, so this also exercises the free list
+            for (int i = 0; i < 10000; i++) {
+                int element = rng.nextInt(1000);
+
+                if (rng.nextBoolean()) {
+                    bst.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), bst.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), bst.size());
+            Assertions.assertEquals(expected.toString(), bst.toStringArray());
+
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertEquals(expected.contains(i), bst.contains(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+// A B+ tree, where every node holds a sorted array of up to "order - 1" elements, so a lookup takes about log_order(n) cache-missing node visits instead of log2(n)
+// Elements are only stored in the leaves, which are linked in ascending order for scans, while the internal nodes only hold separators that guide the descent
+class BPlusTree<T extends Comparable<T>> {
+    private static final class Node<T> {
+        T[] keys; // Has room for one extra key, so that a node can overflow before it's split
+        Node<T>[] children; // "null" for leaves
+        int count; // The amount of keys in use
+        Node<T> next; // The next leaf in ascending order, which is only used by leaves
+
+        Node(int maxKeys, boolean leaf) {
+            super();
+            this.keys = (T[]) new Comparable[maxKeys + 1];
+
+            if (!leaf) {
+                this.children = new Node[maxKeys + 2];
+            }
+
+            this.count = 0;
+            this.next = null;
+        }
+
+        boolean isLeaf() {
+            return this.children == null;
+        }
+    }
+
+    private static final int DEFAULT_ORDER = 64; // 64 references of 4 bytes each span four 64-byte cache lines
+    private static final int MIN_ORDER = 4;
+
+    private int size;
+    private int maxKeys; // The amount of keys a node can hold before it's split
+    private int minKeys; // The amount of keys a node other than the root must hold before it's merged or refilled by a sibling
+    private Node<T> root;
+    private Comparator<? super T> comparator;
+    private T separator; // The key that the last split pushed up to the parent
+    private boolean modified; // Whether or not the last insertion or removal changed the tree
+
+    BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    BPlusTree(int order) {
+        this(order, Comparator.naturalOrder());
+    }
+
+    BPlusTree(int order, Comparator<? super T> comparator) {
+        super();
+
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("The order must be greater than or equal to " + MIN_ORDER);
+        }
+
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator must not be null");
+        }
+
+        this.size = 0;
+        this.maxKeys = order - 1;
+        this.minKeys = this.maxKeys / 2;
+        this.root = new Node<>(this.maxKeys, true);
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        this.root = new Node<>(this.maxKeys, true);
+        this.size = 0;
+    }
+
+    // Returns the amount of levels, which is the same for every leaf
+    int height() {
+        if (this.size == 0) {
+            return 0;
+        }
+
+        int height = 1;
+        Node<T> current = this.root;
+
+        while (!current.isLeaf()) {
+            current = current.children[0];
+            height++;
+        }
+
+        return height;
+    }
+
+    boolean contains(T element) {
+        if (element == null) {
+            return false;
+        }
+
+        Node<T> leaf = this.findLeaf(element);
+
+        return Arrays.binarySearch(leaf.keys, 0, leaf.count, element, this.comparator) >= 0;
+    }
+
+    void add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        this.modified = false;
+        Node<T> sibling = this.add(this.root, element);
+
+        // If the root was split, then the tree grows by one level
+        if (sibling != null) {
+            Node<T> newRoot = new Node<>(this.maxKeys, false);
+            newRoot.keys[0] = this.separator;
+            newRoot.children[0] = this.root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            this.root = newRoot;
+        }
+
+        if (this.modified) {
+            this.size++;
+        }
+    }
+
+    boolean remove(T element) {
+        if (element == null) {
+            return false;
+        }
+
+        this.modified = false;
+        this.remove(this.root, element);
+
+        // If the root lost its last separator, then the tree shrinks by one level
+        if (!this.root.isLeaf() && this.root.count == 0) {
+            this.root = this.root.children[0];
+        }
+
+        if (this.modified) {
+            this.size--;
+        }
+
+        return this.modified;
+    }
+
+    // Performs the action on each element in ascending order by following the chain of leaves
+    void forEach(Consumer<? super T> action) {
+        Node<T> leaf = this.root;
+
+        while (!leaf.isLeaf()) {
+            leaf = leaf.children[0];
+        }
+
+        for (; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(leaf.keys[i]);
+            }
+        }
+    }
+
+    // Performs the action on each element between "low" and "high" inclusive in ascending order, starting from the leaf of "low"
+    void forEachInRange(T low, T high, Consumer<? super T> action) {
+        if (low == null || high == null) {
+            throw new IllegalArgumentException("The arguments must not be null");
+        }
+
+        Node<T> leaf = this.findLeaf(low);
+        int i = Arrays.binarySearch(leaf.keys, 0, leaf.count, low, this.comparator);
+
+        if (i < 0) {
+            i = -i - 1;
+        }
+
+        for (; leaf != null; leaf = leaf.next, i = 0) {
+            for (; i < leaf.count; i++) {
+                if (this.comparator.compare(leaf.keys[i], high) > 0) {
+                    return;
+                }
+
+                action.accept(leaf.keys[i]);
+            }
+        }
+    }
+
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        StringBuilder array = new StringBuilder("[");
+
+        this.forEach(element -> {
+            if (array.length() > 1) {
+                array.append(", ");
+            }
+
+            array.append(element);
+        });
+
+        return array.append("]").toString();
+    }
+
+    private Node<T> findLeaf(T element) {
+        Node<T> current = this.root;
+
+        while (!current.isLeaf()) {
+            current = current.children[this.childIndex(current, element)];
+        }
+
+        return current;
+    }
+
+    // Returns the index of the child whose subtree would hold the element, where keys equal to a separator belong to its right
+    private int childIndex(Node<T> node, T element) {
+        int index = Arrays.binarySearch(node.keys, 0, node.count, element, this.comparator);
+
+        if (index >= 0) {
+            return index + 1;
+
+        } else {
+            return -index - 1;
+        }
+    }
+
+    // Returns the new right sibling of "node" if it had to be split, in which case "separator" holds the key to insert into the parent
+    private Node<T> add(Node<T> node, T element) {
+        if (node.isLeaf()) {
+            int index = Arrays.binarySearch(node.keys, 0, node.count, element, this.comparator);
+
+            if (index >= 0) {
+                return null;
+            }
+
+            this.insertKey(node, -index - 1, element);
+            this.modified = true;
+
+        } else {
+            int index = this.childIndex(node, element);
+            Node<T> sibling = this.add(node.children[index], element);
+
+            if (sibling == null) {
+                return null;
+            }
+
+            this.insertKey(node, index, this.separator);
+            System.arraycopy(node.children, index + 1, node.children, index + 2, node.count - index - 1);
+            node.children[index + 1] = sibling;
+        }
+
+        if (node.count > this.maxKeys) {
+            return this.split(node);
+
+        } else {
+            return null;
+        }
+    }
+
+    private Node<T> split(Node<T> node) {
+        Node<T> sibling = new Node<>(this.maxKeys, node.isLeaf());
+        int half = node.count / 2;
+
+        if (node.isLeaf()) { // The first key of the right leaf is copied up as the separator
+            sibling.count = node.count - half;
+            System.arraycopy(node.keys, half, sibling.keys, 0, sibling.count);
+            sibling.next = node.next;
+            node.next = sibling;
+            this.separator = sibling.keys[0];
+
+        } else { // The middle key moves up as the separator
+            sibling.count = node.count - half - 1;
+            System.arraycopy(node.keys, half + 1, sibling.keys, 0, sibling.count);
+            System.arraycopy(node.children, half + 1, sibling.children, 0, sibling.count + 1);
+            Arrays.fill(node.children, half + 1, node.count + 1, null);
+            this.separator = node.keys[half];
+        }
+
+        Arrays.fill(node.keys, half, node.count, null);
+        node.count = half;
+
+        return sibling;
+    }
+
+    private void remove(Node<T> node, T element) {
+        if (node.isLeaf()) {
+            int index = Arrays.binarySearch(node.keys, 0, node.count, element, this.comparator);
+
+            if (index >= 0) {
+                this.removeKey(node, index);
+                this.modified = true;
+            }
+
+        } else {
+            int index = this.childIndex(node, element);
+            Node<T> child = node.children[index];
+            this.remove(child, element);
+
+            if (child.count < this.minKeys) {
+                this.refill(node, index);
+            }
+        }
+    }
+
+    // Restores the minimum amount of keys in the child at the index by borrowing from a sibling, or otherwise by merging with a sibling
+    private void refill(Node<T> parent, int index) {
+        Node<T> child = parent.children[index];
+        Node<T> left = null;
+        Node<T> right = null;
+
+        if (index > 0) {
+            left = parent.children[index - 1];
+        }
+
+        if (index < parent.count) {
+            right = parent.children[index + 1];
+        }
+
+        if (left != null && left.count > this.minKeys) {
+            if (child.isLeaf()) {
+                this.insertKey(child, 0, left.keys[left.count - 1]);
+                this.removeKey(left, left.count - 1);
+                parent.keys[index - 1] = child.keys[0];
+
+            } else { // Rotate the separator down into the child, and the last key of the left sibling up into the parent
+                System.arraycopy(child.children, 0, child.children, 1, child.count + 1);
+                child.children[0] = left.children[left.count];
+                left.children[left.count] = null;
+                this.insertKey(child, 0, parent.keys[index - 1]);
+                parent.keys[index - 1] = left.keys[left.count - 1];
+                this.removeKey(left, left.count - 1);
+            }
+
+        } else if (right != null && right.count > this.minKeys) {
+            if (child.isLeaf()) {
+                this.insertKey(child, child.count, right.keys[0]);
+                this.removeKey(right, 0);
+                parent.keys[index] = right.keys[0];
+
+            } else { // Rotate the separator down into the child, and the first key of the right sibling up into the parent
+                this.insertKey(child, child.count, parent.keys[index]);
+                child.children[child.count] = right.children[0];
+                parent.keys[index] = right.keys[0];
+                System.arraycopy(right.children, 1, right.children, 0, right.count);
+                right.children[right.count] = null;
+                this.removeKey(right, 0);
+            }
+
+        } else if (left != null) {
+            this.merge(parent, index - 1);
+
+        } else if (right != null) {
+            this.merge(parent, index);
+        }
+    }
+
+    // Merges the child at "index + 1" into the child at the index, and removes their separator from the parent
+    private void merge(Node<T> parent, int index) {
+        Node<T> left = parent.children[index];
+        Node<T> right = parent.children[index + 1];
+
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            left.next = right.next;
+
+        } else {
+            left.keys[left.count] = parent.keys[index];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+
+        this.removeKey(parent, index);
+        System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index);
+        parent.children[parent.count + 1] = null;
+    }
+
+    private void insertKey(Node<T> node, int index, T key) {
+        System.arraycopy(node.keys, index, node.keys, index + 1, node.count - index);
+        node.keys[index] = key;
+        node.count++;
+    }
+
+    private void removeKey(Node<T> node, int index) {
+        System.arraycopy(node.keys, index + 1, node.keys, index, node.count - index - 1);
+        node.count--;
+        node.keys[node.count] = null;
+    }
+}
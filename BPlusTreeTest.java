@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BPlusTreeTest {
+    @Test
+    void size() {
+        BPlusTree<Integer> tree = new BPlusTree<>();
+
+        Assertions.assertEquals(0, tree.size());
+
+        tree.add(7);
+        tree.add(3);
+        tree.add(10);
+        tree.add(10);
+
+        Assertions.assertEquals(3, tree.size());
+    }
+
+    @Test
+    void containsAddedElement() {
+        BPlusTree<Integer> tree = new BPlusTree<>();
+
+        tree.add(7);
+
+        Assertions.assertTrue(tree.contains(7));
+        Assertions.assertFalse(tree.contains(2));
+    }
+
+    @Test
+    void remove() {
+        BPlusTree<Integer> tree = new BPlusTree<>(4);
+
+        for (int i = 0; i < 10; i++) {
+            tree.add(i);
+        }
+
+        Assertions.assertTrue(tree.remove(5));
+        Assertions.assertFalse(tree.remove(5));
+        Assertions.assertEquals("[0, 1, 2, 3, 4, 6, 7, 8, 9]", tree.toStringArray());
+    }
+
+    @Test
+    void clear() {
+        BPlusTree<Integer> tree = new BPlusTree<>();
+
+        tree.add(7);
+        tree.add(3);
+
+        tree.clear();
+
+        Assertions.assertTrue(tree.isEmpty());
+        Assertions.assertEquals(0, tree.height());
+        Assertions.assertEquals("[]", tree.toStringArray());
+    }
+
+    @Test
+    void invalidOrder() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BPlusTree<Integer>(3));
+    }
+
+    @Test
+    void heightSortedInsertion() {
+        BPlusTree<Integer> tree = new BPlusTree<>();
+        int n = 1 << 20;
+
+        for (int i = 0; i < n; i++) {
+            tree.add(i);
+        }
+
+        // Every node other than the root is at least half full, so there are at most log_32(n) + 1 levels
+        Assertions.assertEquals(n, tree.size());
+        Assertions.assertTrue(tree.height() <= 5);
+    }
+
+    @Test
+    void forEachInRange() {
+        BPlusTree<Integer> tree = new BPlusTree<>(4);
+
+        for (int i = 0; i < 100; i += 10) {
+            tree.add(i);
+        }
+
+        List<Integer> elements = new ArrayList<>();
+        tree.forEachInRange(15, 50, elements::add);
+
+        Assertions.assertEquals(Arrays.asList(20, 30, 40, 50), elements);
+    }
+
+    @Test
+    void randomOperations() {
+        for (int order : new int[]{4, 5, 64}) {
+            Random rng = new Random();
+            BPlusTree<Integer> tree = new BPlusTree<>(order);
+            TreeSet<Integer> expected = new TreeSet<>();
+
+            for (int i = 0; i < 20000; i++) {
+                int element = rng.nextInt(2000);
+
+                if (rng.nextBoolean()) {
+                    tree.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), tree.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), tree.size());
+            Assertions.assertEquals(expected.toString(), tree.toStringArray());
+
+            for (int i = 0; i < 100; i++) {
+                int low = rng.nextInt(2000);
+                int high = low + rng.nextInt(300);
+                List<Integer> elements = new ArrayList<>();
+                tree.forEachInRange(low, high, elements::add);
+
+                Assertions.assertEquals(new ArrayList<>(expected.subSet(low, true, high, true)), elements);
+            }
+
+            // Removing everything must collapse the tree back to an empty leaf
+            for (int i = 0; i < 2000; i++) {
+                tree.remove(i);
+            }
+
+            Assertions.assertTrue(tree.isEmpty());
+            Assertions.assertEquals(0, tree.height());
+        }
+    }
+}
@@ -1,16 +1,25 @@
-import java.util.HashSet;
-
-class BinarySearchTree<T extends Comparable<T>> {
-    private class Node {
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+class BinarySearchTree<T extends Comparable<T>> implements Iterable<T> {
+    private static class Node<T> { // Static, so that nodes don't hold a hidden reference to the tree
         T item;
-        Node left;
-        Node right;
+        Node<T> left;
+        Node<T> right;
+        int height; // The amount of levels in the subtree rooted at this node, which is kept up to date by every insertion and removal
+        int size; // The amount of nodes in the subtree rooted at this node
 
-        Node(T item, Node left, Node right) {
+        Node(T item, Node<T> left, Node<T> right) {
             super();
             this.item = item;
             this.left = left;
             this.right = right;
+            this.height = 1;
+            this.size = 1;
         }
 
         Node(T item) {
@@ -18,15 +27,74 @@ class BinarySearchTree<T extends Comparable<T>> {
         }
     }
 
+    // Visits nodes in ascending order of elements with an explicit stack, so that degenerate trees can't overflow the call stack
+    private class InOrderIterator implements Iterator<T> {
+        private ArrayDeque<Node<T>> stack; // The ancestors whose elements haven't been visited yet
+
+        InOrderIterator() {
+            super();
+            this.stack = new ArrayDeque<>();
+            this.pushLeftBranch(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (this.stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<T> node = this.stack.pop();
+            this.pushLeftBranch(node.right);
+
+            return node.item;
+        }
+
+        private void pushLeftBranch(Node<T> node) {
+            while (node != null) {
+                this.stack.push(node);
+                node = node.left;
+            }
+        }
+    }
+
     private int size;
-    private HashSet<T> elements; // A fast way of checking whether or not an element exists
-    private Node root;
+    private Node<T> root;
+    private boolean balanced; // Whether or not the tree rebalances itself as an AVL tree, which bounds its height to about 1.44 * log2(n)
+    private boolean modified; // Whether or not the last recursive insertion or removal changed the tree
+    private Comparator<? super T> comparator; // Every descent calls this exactly once per node visited
+    private Node<T>[] path; // The ancestors visited by the last iterative insertion or removal, whose heights are updated from the bottom up
+    private int pathLength;
 
     BinarySearchTree() {
+        this(Comparator.naturalOrder(), false);
+    }
+
+    BinarySearchTree(boolean balanced) {
+        this(Comparator.naturalOrder(), balanced);
+    }
+
+    BinarySearchTree(Comparator<? super T> comparator) {
+        this(comparator, false);
+    }
+
+    BinarySearchTree(Comparator<? super T> comparator, boolean balanced) {
         super();
+
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator must not be null");
+        }
+
+        this.comparator = comparator;
+        this.path = new Node[16];
+        this.pathLength = 0;
         this.size = 0;
-        this.elements = new HashSet<>();
         this.root = null;
+        this.balanced = balanced;
     }
 
     int size() {
@@ -34,7 +102,27 @@ class BinarySearchTree<T extends Comparable<T>> {
     }
 
     boolean contains(T element) {
-        return this.elements.contains(element);
+        if (element == null) {
+            return false;
+        }
+
+        Node<T> current = this.root;
+
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison == 0) {
+                return true;
+
+            } else if (comparison < 0) {
+                current = current.left;
+
+            } else {
+                current = current.right;
+            }
+        }
+
+        return false;
     }
 
     boolean isEmpty() {
@@ -42,13 +130,17 @@ class BinarySearchTree<T extends Comparable<T>> {
     }
 
     void clear() {
-        this.elements.clear();
         this.root = null;
         this.size = 0;
     }
 
+    boolean isBalanced() {
+        return this.balanced;
+    }
+
+    // Takes O(1), since every node keeps track of its own height
     int height() {
-        return this.height(this.root);
+        return this.nodeHeight(this.root);
     }
 
     void add(T element) {
@@ -56,20 +148,37 @@ class BinarySearchTree<T extends Comparable<T>> {
             throw new IllegalArgumentException("The argument must not be null");
         }
 
-        if (this.size == 0) {
-            this.root = new Node(element);
+        if (this.balanced) {
+            this.modified = false;
+            this.root = this.addToAVL(this.root, element);
+
+            if (!this.modified) {
+                return;
+            }
+
+        } else if (this.size == 0) {
+            this.root = new Node<>(element);
 
         } else {
-            Node current = this.root;
+            Node<T> current = this.root;
+            this.pathLength = 0;
 
+            // The subtree sizes along the path are incremented on the way down, and restored if the element already exists
             while (true) {
-                if (element.compareTo(current.item) == 0) {
+                int comparison = this.comparator.compare(element, current.item);
+
+                if (comparison == 0) {
+                    this.adjustPathSizes(-1);
+                    this.clearPath();
                     return;
                 }
 
-                if (element.compareTo(current.item) < 0) {
+                current.size++;
+                this.pushPath(current);
+
+                if (comparison < 0) {
                     if (current.left == null) {
-                        current.left = new Node(element);
+                        current.left = new Node<>(element);
                         break;
 
                     } else {
@@ -78,7 +187,7 @@ class BinarySearchTree<T extends Comparable<T>> {
 
                 } else {
                     if (current.right == null) {
-                        current.right = new Node(element);
+                        current.right = new Node<>(element);
                         break;
 
                     } else {
@@ -86,137 +195,562 @@ class BinarySearchTree<T extends Comparable<T>> {
                     }
                 }
             }
+
+            // Heights only grow after an insertion, so once an ancestor's height is unchanged, so are the heights above it
+            for (int i = this.pathLength - 1; i >= 0; i--) {
+                int height = this.path[i].height;
+                this.update(this.path[i]);
+
+                if (this.path[i].height == height) {
+                    break;
+                }
+            }
+
+            this.clearPath();
         }
 
-        this.elements.add(element);
         this.size++;
     }
 
+    // Adds every element by rebuilding the tree with a perfectly balanced shape, which takes linear time when the elements are sorted
+    void addAll(T[] elements) {
+        if (elements == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        T[] sorted = Arrays.copyOf(elements, elements.length);
+        boolean isSorted = true;
+
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] == null) {
+                throw new IllegalArgumentException("The elements must not be null");
+            }
+
+            if (i > 0 && this.comparator.compare(sorted[i - 1], sorted[i]) >= 0) {
+                isSorted = false;
+            }
+        }
+
+        if (!isSorted) {
+            Arrays.sort(sorted, this.comparator);
+        }
+
+        T[] existing = (T[]) new Comparable[this.size];
+        int j = 0;
+
+        for (T element : this) {
+            existing[j++] = element;
+        }
+
+        // Merge the existing elements with the new elements, both in ascending order, while dropping duplicates
+        T[] merged = (T[]) new Comparable[existing.length + sorted.length];
+        int length = 0;
+        int i = 0;
+        j = 0;
+
+        while (i < sorted.length || j < existing.length) {
+            T element;
+
+            if (j == existing.length || (i < sorted.length && this.comparator.compare(sorted[i], existing[j]) < 0)) {
+                element = sorted[i++];
+
+            } else {
+                element = existing[j++];
+            }
+
+            if (length == 0 || this.comparator.compare(merged[length - 1], element) != 0) {
+                merged[length++] = element;
+            }
+        }
+
+        this.root = this.build(merged, 0, length - 1);
+        this.size = length;
+    }
+
     boolean remove(T element) {
-        boolean removed = this.removeFromBST(element);
-        this.elements.remove(element);
-        this.size--;
+        if (element == null) {
+            return false;
+        }
+
+        boolean removed;
+
+        if (this.balanced) {
+            this.modified = false;
+            this.root = this.removeFromAVL(this.root, element);
+            removed = this.modified;
+
+        } else {
+            removed = this.removeFromBST(element);
+        }
+
+        if (removed) {
+            this.size--;
+        }
 
         return removed;
     }
 
-    // Returns a string array of the elements in ascending order
-    String toStringArray() {
-        if (this.root == null) {
-            return "[]";
+    // Returns the greatest element less than or equal to the element, or "null" if there isn't one
+    T floor(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
 
-        } else {
-            String array = "";
-            array += "[";
-            array += this.toStringArrayTraversal(this.root);
-            array = array.substring(0, array.length() - 2); // Remove comma and space
-            array += "]";
-            
-            return array;
+        Node<T> current = this.root;
+        T floor = null;
+
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison == 0) {
+                return current.item;
+
+            } else if (comparison < 0) {
+                current = current.left;
+
+            } else {
+                floor = current.item;
+                current = current.right;
+            }
         }
+
+        return floor;
     }
 
-    private int height(Node node) {
-        if (node == null) {
+    // Returns the least element greater than or equal to the element, or "null" if there isn't one
+    T ceiling(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        Node<T> current = this.root;
+        T ceiling = null;
+
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison == 0) {
+                return current.item;
+
+            } else if (comparison < 0) {
+                ceiling = current.item;
+                current = current.left;
+
+            } else {
+                current = current.right;
+            }
+        }
+
+        return ceiling;
+    }
+
+    // Returns the amount of elements less than the element
+    int rank(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        return this.rank(element, false);
+    }
+
+    // Returns the element with the given rank, that is, the element at the index in ascending order
+    T select(int rank) {
+        if (rank < 0 || rank >= this.size) {
+            throw new IllegalArgumentException("The rank must be greater than or equal to 0, and less than " + this.size);
+        }
+
+        Node<T> current = this.root;
+
+        while (true) {
+            int leftSize = this.nodeSize(current.left);
+
+            if (rank < leftSize) {
+                current = current.left;
+
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                current = current.right;
+
+            } else {
+                return current.item;
+            }
+        }
+    }
+
+    // Returns the amount of elements between "low" and "high" inclusive
+    int rangeCount(T low, T high) {
+        if (low == null || high == null) {
+            throw new IllegalArgumentException("The arguments must not be null");
+        }
+
+        if (this.comparator.compare(low, high) > 0) {
             return 0;
 
         } else {
-            return Math.max(this.height(node.left), this.height(node.right)) + 1;
+            return this.rank(high, true) - this.rank(low, false);
         }
     }
 
-    private boolean removeFromBST(T element) {
-        if (this.elements.contains(element)) {
-            Node current = new Node(null, this.root, null); // A dummy node just in case the root is removed
-            Node child = null;
+    // Performs the action on each element between "low" and "high" inclusive in ascending order, without visiting subtrees outside of the range
+    void forEachInRange(T low, T high, Consumer<? super T> action) {
+        if (low == null || high == null) {
+            throw new IllegalArgumentException("The arguments must not be null");
+        }
 
-            // Find the node corresponding to the element
-            while (child == null) {
-                if (current.item == null || element.compareTo(current.item) < 0) {
-                    if (current.left.item == element) {
-                        child = current.left;
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> current = this.root;
 
-                    } else {
-                        current = current.left;
-                    }
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                if (this.comparator.compare(low, current.item) > 0) { // The node and its left subtree are below the range
+                    current = current.right;
 
                 } else {
-                    if (current.right.item == element) {
-                        child = current.right;
-
-                    } else {
-                        current = current.right;
-                    }
+                    stack.push(current);
+                    current = current.left;
                 }
             }
 
-            // Remove the node
-            if (child.left == null) {
-                if (current.left == child) {
-                    current.left = child.right;
+            if (stack.isEmpty()) {
+                return;
+            }
 
-                } else {
-                    current.right = child.right;
-                }
+            current = stack.pop();
 
-            } else if (child.right == null) {
-                if (current.left == child) {
-                    current.left = child.left;
+            if (this.comparator.compare(high, current.item) < 0) { // Every remaining node is above the range
+                return;
+            }
 
-                } else {
-                    current.right = child.left;
-                }
+            action.accept(current.item);
+            current = current.right;
+        }
+    }
 
-            } else { // "child" can be replaced with the right-most node of "child.left", or the left-most node of "child.right"
-                Node rightMost = this.rightMost(child.left);
-                this.removeFromBST(rightMost.item);
-                rightMost.right = child.right;
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator();
+    }
 
-                if (current.left == child) {
-                    if (rightMost != child.left) {
-                        rightMost.left = child.left;
-                    }
+    // Performs the action on each element in ascending order
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> current = this.root;
 
-                    current.left = rightMost;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
 
-                } else {
-                    if (rightMost != child.left) {
-                        rightMost.left = child.left;
-                    }
+            current = stack.pop();
+            action.accept(current.item);
+            current = current.right;
+        }
+    }
 
-                    current.right = rightMost;
-                }
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        StringBuilder array = new StringBuilder("[");
+
+        for (T element : this) {
+            if (array.length() > 1) {
+                array.append(", ");
             }
 
-            // If the element corresponds to the root node, then reset the root node
-            if (element.compareTo(this.root.item) == 0) {
-                this.root = current.left;
+            array.append(element);
+        }
+
+        return array.append("]").toString();
+    }
+
+    private boolean removeFromBST(T element) {
+        Node<T> parent = null;
+        Node<T> current = this.root;
+        this.pathLength = 0;
+
+        // Find the node corresponding to the element, along with its parent
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison == 0) {
+                break;
             }
 
-            return true;
+            current.size--; // Restored below if the element doesn't exist
+            this.pushPath(current);
+            parent = current;
 
-        } else {
+            if (comparison < 0) {
+                current = current.left;
+
+            } else {
+                current = current.right;
+            }
+        }
+
+        if (current == null) {
+            this.adjustPathSizes(1);
+            this.clearPath();
             return false;
         }
+
+        int ancestors = this.pathLength;
+
+        // Find the node that takes the place of the removed node
+        Node<T> replacement;
+
+        if (current.left == null) {
+            replacement = current.right;
+
+        } else if (current.right == null) {
+            replacement = current.left;
+
+        } else { // "current" can be replaced with the right-most node of "current.left", or the left-most node of "current.right"
+            Node<T> rightMostParent = current;
+            Node<T> rightMost = current.left;
+
+            while (rightMost.right != null) {
+                rightMost.size--; // The right-most node is moved out of this subtree
+                this.pushPath(rightMost);
+                rightMostParent = rightMost;
+                rightMost = rightMost.right;
+            }
+
+            rightMost.size = current.size - 1;
+
+            if (rightMostParent != current) {
+                rightMostParent.right = rightMost.left;
+                rightMost.left = current.left;
+            }
+
+            rightMost.right = current.right;
+            replacement = rightMost;
+        }
+
+        // If the element corresponds to the root node, then reset the root node
+        if (parent == null) {
+            this.root = replacement;
+
+        } else if (parent.left == current) {
+            parent.left = replacement;
+
+        } else {
+            parent.right = replacement;
+        }
+
+        // Update the heights from the bottom up, first along the path to the right-most node, then the replacement, then the ancestors
+        for (int i = this.pathLength - 1; i >= ancestors; i--) {
+            this.update(this.path[i]);
+        }
+
+        if (replacement != null) {
+            this.update(replacement);
+        }
+
+        for (int i = ancestors - 1; i >= 0; i--) {
+            this.update(this.path[i]);
+        }
+
+        this.clearPath();
+
+        return true;
     }
 
-    private Node rightMost(Node node) {
-        while (node.right != null) {
-            node = node.right;
+    private void pushPath(Node<T> node) {
+        if (this.pathLength == this.path.length) {
+            this.path = Arrays.copyOf(this.path, this.pathLength * 2);
+        }
+
+        this.path[this.pathLength++] = node;
+    }
+
+    // Drops the references to the visited nodes, so that the path doesn't keep removed nodes reachable
+    private void clearPath() {
+        Arrays.fill(this.path, 0, this.pathLength, null);
+        this.pathLength = 0;
+    }
+
+    // Builds a perfectly balanced tree, which also satisfies the AVL invariant, out of the sorted elements between "low" and "high" inclusive
+    private Node<T> build(T[] sorted, int low, int high) {
+        if (low > high) {
+            return null;
         }
 
+        int middle = (low + high) >>> 1;
+        Node<T> node = new Node<>(sorted[middle], this.build(sorted, low, middle - 1), this.build(sorted, middle + 1, high));
+        this.update(node);
+
         return node;
     }
 
-    // In-order traversal visits nodes in ascending order of elements of binary search trees
-    private String toStringArrayTraversal(Node node) {
-        if (node != null) {
-            return this.toStringArrayTraversal(node.left)
-                + node.item + ", "
-                + this.toStringArrayTraversal(node.right);
+    // Recursion is safe here, since the height of an AVL tree is logarithmic
+    private Node<T> addToAVL(Node<T> node, T element) {
+        if (node == null) {
+            this.modified = true;
+            return new Node<>(element);
+        }
+
+        int comparison = this.comparator.compare(element, node.item);
+
+        if (comparison == 0) {
+            return node;
+
+        } else if (comparison < 0) {
+            node.left = this.addToAVL(node.left, element);
+
+        } else {
+            node.right = this.addToAVL(node.right, element);
+        }
+
+        return this.rebalance(node);
+    }
+
+    private Node<T> removeFromAVL(Node<T> node, T element) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = this.comparator.compare(element, node.item);
+
+        if (comparison < 0) {
+            node.left = this.removeFromAVL(node.left, element);
+
+        } else if (comparison > 0) {
+            node.right = this.removeFromAVL(node.right, element);
+
+        } else if (node.left == null) {
+            this.modified = true;
+            return node.right;
+
+        } else if (node.right == null) {
+            this.modified = true;
+            return node.left;
+
+        } else { // Replace the node with the right-most node of its left subtree
+            Node<T> rightMost = this.rightMost(node.left);
+            rightMost.left = this.removeRightMost(node.left);
+            rightMost.right = node.right;
+            node = rightMost;
+            this.modified = true;
+        }
+
+        return this.rebalance(node);
+    }
+
+    // Detaches the right-most node of the subtree by following right children rather than comparing elements, and returns the root of the subtree
+    private Node<T> removeRightMost(Node<T> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+
+        node.right = this.removeRightMost(node.right);
+
+        return this.rebalance(node);
+    }
+
+    // Restores the AVL invariant (the heights of both subtrees differ by at most 1) at "node", and returns the root of the subtree
+    private Node<T> rebalance(Node<T> node) {
+        this.update(node);
+        int balance = this.nodeHeight(node.left) - this.nodeHeight(node.right);
+
+        if (balance > 1) {
+            if (this.nodeHeight(node.left.left) < this.nodeHeight(node.left.right)) { // Left-right case
+                node.left = this.rotateLeft(node.left);
+            }
+
+            return this.rotateRight(node);
+
+        } else if (balance < -1) {
+            if (this.nodeHeight(node.right.right) < this.nodeHeight(node.right.left)) { // Right-left case
+                node.right = this.rotateRight(node.right);
+            }
+
+            return this.rotateLeft(node);
 
         } else {
-            return "";
+            return node;
         }
     }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+
+        this.update(node);
+        this.update(pivot);
+
+        return pivot;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+
+        this.update(node);
+        this.update(pivot);
+
+        return pivot;
+    }
+
+    // Recomputes the augmented fields of "node" from its children
+    private void update(Node<T> node) {
+        node.height = Math.max(this.nodeHeight(node.left), this.nodeHeight(node.right)) + 1;
+        node.size = this.nodeSize(node.left) + this.nodeSize(node.right) + 1;
+    }
+
+    private int nodeHeight(Node<T> node) {
+        if (node == null) {
+            return 0;
+
+        } else {
+            return node.height;
+        }
+    }
+
+    private int nodeSize(Node<T> node) {
+        if (node == null) {
+            return 0;
+
+        } else {
+            return node.size;
+        }
+    }
+
+    // Adds "delta" to the subtree sizes of the visited nodes, which undoes the changes of a descent that didn't modify the tree, without comparing any elements again
+    private void adjustPathSizes(int delta) {
+        for (int i = 0; i < this.pathLength; i++) {
+            this.path[i].size += delta;
+        }
+    }
+
+    // Returns the amount of elements less than the element, or less than or equal to the element if "inclusive"
+    private int rank(T element, boolean inclusive) {
+        Node<T> current = this.root;
+        int rank = 0;
+
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison < 0 || (comparison == 0 && !inclusive)) {
+                current = current.left;
+
+            } else {
+                rank += this.nodeSize(current.left) + 1;
+                current = current.right;
+            }
+        }
+
+        return rank;
+    }
+
+    private Node<T> rightMost(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+
+        return node;
+    }
 }
\ No newline at end of file
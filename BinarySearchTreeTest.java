@@ -1,3 +1,12 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -426,4 +435,421 @@ class BinarySearchTreeTest {
 
         Assertions.assertEquals("[2, 3, 4, 7, 8, 10, 12, 15, 19, 20, 21, 30, 34, 35, 36]", bst.toStringArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void balancedHeightSortedInsertion() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>(true);
+        int n = 1 << 20;
+
+        for (int i = 0; i < n; i++) {
+            bst.add(i);
+        }
+
+        // The height of an AVL tree is less than 1.4405 * log2(n + 2) - 0.3277
+        Assertions.assertEquals(n, bst.size());
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void balancedHeightAfterRemoval() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>(true);
+        int n = 1 << 16;
+
+        for (int i = 0; i < n; i++) {
+            bst.add(i);
+        }
+
+        // Remove the lower half, which would leave a plain binary search tree lopsided
+        for (int i = 0; i < n / 2; i++) {
+            Assertions.assertTrue(bst.remove(i));
+        }
+
+        Assertions.assertEquals(n / 2, bst.size());
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n / 2 + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void balancedRandomOperations() {
+        Random rng = new Random();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>(true);
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 10000; i++) {
+            int element = rng.nextInt(1000);
+
+            if (rng.nextBoolean()) {
+                bst.add(element);
+                expected.add(element);
+
+            } else {
+                Assertions.assertEquals(expected.remove(element), bst.remove(element));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), bst.size());
+        Assertions.assertEquals(expected.toString(), bst.toStringArray());
+    }
+
+    @Test
+    void containsAfterRemoval() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+
+        bst.remove(3);
+
+        Assertions.assertFalse(bst.contains(3));
+        Assertions.assertTrue(bst.contains(7));
+        Assertions.assertTrue(bst.contains(10));
+    }
+
+    @Test
+    void removeEqualButDistinctElement() {
+        BinarySearchTree<String> bst = new BinarySearchTree<>();
+
+        bst.add(new String("b"));
+        bst.add(new String("a"));
+        bst.add(new String("c"));
+
+        Assertions.assertTrue(bst.remove(new String("c")));
+        Assertions.assertFalse(bst.contains("c"));
+        Assertions.assertEquals(2, bst.size());
+    }
+
+    @Test
+    void removeUnaddedElement() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+
+        Assertions.assertFalse(bst.remove(1000));
+        Assertions.assertEquals(2, bst.size());
+    }
+
+    @Test
+    void iteratorAscendingOrder() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(2);
+        bst.add(4);
+        bst.add(10);
+        bst.add(8);
+        bst.add(12);
+
+        List<Integer> elements = new ArrayList<>();
+
+        for (int element : bst) {
+            elements.add(element);
+        }
+
+        Assertions.assertEquals(Arrays.asList(2, 3, 4, 7, 8, 10, 12), elements);
+    }
+
+    @Test
+    void iteratorExhausted() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+
+        Iterator<Integer> iterator = bst.iterator();
+
+        Assertions.assertEquals(7, iterator.next());
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void forEachAscendingOrder() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(2);
+        bst.add(4);
+        bst.add(10);
+        bst.add(8);
+        bst.add(12);
+
+        List<Integer> elements = new ArrayList<>();
+        bst.forEach(elements::add);
+
+        Assertions.assertEquals(Arrays.asList(2, 3, 4, 7, 8, 10, 12), elements);
+    }
+
+    @Test
+    void toStringArrayDegenerateTree() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        StringBuilder expected = new StringBuilder("[");
+
+        // Sorted insertion makes every node a right child, so a recursive traversal would overflow the stack
+        for (int i = 0; i < 20000; i++) {
+            bst.add(i);
+            expected.append(i == 0 ? "" : ", ").append(i);
+        }
+
+        Assertions.assertEquals(expected.append("]").toString(), bst.toStringArray());
+    }
+
+    @Test
+    void floorAndCeiling() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(10);
+        bst.add(20);
+        bst.add(30);
+
+        Assertions.assertNull(bst.floor(5));
+        Assertions.assertEquals(10, bst.floor(10));
+        Assertions.assertEquals(20, bst.floor(25));
+        Assertions.assertEquals(30, bst.floor(35));
+
+        Assertions.assertEquals(10, bst.ceiling(5));
+        Assertions.assertEquals(20, bst.ceiling(20));
+        Assertions.assertEquals(30, bst.ceiling(25));
+        Assertions.assertNull(bst.ceiling(35));
+    }
+
+    @Test
+    void rankAndSelect() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(2);
+        bst.add(4);
+        bst.add(10);
+        bst.add(8);
+        bst.add(12);
+
+        Assertions.assertEquals(0, bst.rank(1));
+        Assertions.assertEquals(3, bst.rank(7));
+        Assertions.assertEquals(7, bst.rank(13));
+
+        Assertions.assertEquals(2, bst.select(0));
+        Assertions.assertEquals(7, bst.select(3));
+        Assertions.assertEquals(12, bst.select(6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bst.select(7));
+    }
+
+    @Test
+    void rangeCountAndForEachInRange() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        for (int i = 0; i < 100; i += 10) {
+            bst.add(i);
+        }
+
+        List<Integer> elements = new ArrayList<>();
+        bst.forEachInRange(15, 50, elements::add);
+
+        Assertions.assertEquals(4, bst.rangeCount(15, 50));
+        Assertions.assertEquals(Arrays.asList(20, 30, 40, 50), elements);
+        Assertions.assertEquals(0, bst.rangeCount(50, 15));
+    }
+
+    @Test
+    void orderQueriesRandomOperations() {
+        for (boolean balanced : new boolean[]{false, true}) {
+            Random rng = new Random();
+            BinarySearchTree<Integer> bst = new BinarySearchTree<>(balanced);
+            TreeSet<Integer> expected = new TreeSet<>();
+
+            for (int i = 0; i < 5000; i++) {
+                int element = rng.nextInt(1000);
+
+                if (rng.nextInt(3) > 0) {
+                    bst.add(element);
+                    expected.add(element);
+
+                } else {
+                    bst.remove(element);
+                    expected.remove(element);
+                }
+            }
+
+            List<Integer> sorted = new ArrayList<>(expected);
+
+            for (int i = 0; i < sorted.size(); i++) {
+                Assertions.assertEquals(sorted.get(i), bst.select(i));
+            }
+
+            for (int i = -1; i <= 1000; i++) {
+                Assertions.assertEquals(expected.floor(i), bst.floor(i));
+                Assertions.assertEquals(expected.ceiling(i), bst.ceiling(i));
+                Assertions.assertEquals(expected.headSet(i).size(), bst.rank(i));
+            }
+
+            for (int i = 0; i < 100; i++) {
+                int low = rng.nextInt(1000);
+                int high = low + rng.nextInt(200);
+                List<Integer> elements = new ArrayList<>();
+                bst.forEachInRange(low, high, elements::add);
+
+                Assertions.assertEquals(new ArrayList<>(expected.subSet(low, true, high, true)), elements);
+                Assertions.assertEquals(elements.size(), bst.rangeCount(low, high));
+            }
+        }
+    }
+
+    @Test
+    void addAllSorted() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        Integer[] elements = new Integer[1 << 16];
+
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = i;
+        }
+
+        bst.addAll(elements);
+
+        Assertions.assertEquals(elements.length, bst.size());
+        Assertions.assertEquals(17, bst.height());
+        Assertions.assertEquals(12345, bst.select(12345));
+    }
+
+    @Test
+    void addAllUnsortedWithDuplicates() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        bst.addAll(new Integer[]{5, 3, 9, 3, 1, 5});
+
+        Assertions.assertEquals(4, bst.size());
+        Assertions.assertEquals("[1, 3, 5, 9]", bst.toStringArray());
+    }
+
+    @Test
+    void addAllIntoNonEmptyTree() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>(true);
+
+        bst.add(4);
+        bst.add(2);
+        bst.add(8);
+
+        bst.addAll(new Integer[]{1, 2, 3, 9});
+        bst.add(5);
+        bst.remove(1);
+
+        Assertions.assertEquals(6, bst.size());
+        Assertions.assertEquals("[2, 3, 4, 5, 8, 9]", bst.toStringArray());
+        Assertions.assertEquals(3, bst.height());
+    }
+
+    @Test
+    void addAllNullElement() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bst.addAll(new Integer[]{1, null}));
+    }
+
+    @Test
+    void customComparator() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>(Comparator.<Integer>reverseOrder());
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+
+        Assertions.assertEquals("[10, 7, 3]", bst.toStringArray());
+        Assertions.assertEquals(10, bst.select(0));
+    }
+
+    @Test
+    void comparisonsPerOperation() {
+        int[] comparisons = new int[1];
+        Comparator<Integer> counter = (a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        };
+
+        for (boolean balanced : new boolean[]{true, false}) {
+            BinarySearchTree<Integer> bst = new BinarySearchTree<>(counter, balanced);
+            Random rng = new Random();
+
+            for (int i = 0; i < 10000; i++) {
+                bst.add(rng.nextInt());
+            }
+
+            // A descent visits at most "height" nodes, and compares against each of them once, even if it ends up not modifying the tree
+            for (int i = 0; i < 1000; i++) {
+                int element = rng.nextInt();
+                int height = bst.height();
+
+                comparisons[0] = 0;
+                boolean exists = bst.contains(element);
+                Assertions.assertTrue(comparisons[0] <= height);
+
+                if (!exists) {
+                    comparisons[0] = 0;
+                    Assertions.assertFalse(bst.remove(element));
+                    Assertions.assertTrue(comparisons[0] <= height);
+                }
+
+                comparisons[0] = 0;
+                bst.add(element);
+                Assertions.assertTrue(comparisons[0] <= height);
+
+                height = bst.height();
+                int size = bst.size();
+                comparisons[0] = 0;
+                bst.add(element);
+                Assertions.assertTrue(comparisons[0] <= height);
+                Assertions.assertEquals(size, bst.size());
+
+                comparisons[0] = 0;
+                bst.remove(bst.select(rng.nextInt(bst.size())));
+                Assertions.assertTrue(comparisons[0] <= height);
+            }
+
+            // The sizes that were undone must still be right, or "select" would return the wrong elements
+            List<Integer> elements = new ArrayList<>();
+            bst.forEach(elements::add);
+
+            for (int i = 0; i < elements.size(); i++) {
+                Assertions.assertEquals(elements.get(i), bst.select(i));
+            }
+        }
+    }
+
+    @Test
+    void heightDegenerateTree() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+
+        // Sorted insertion makes every node a right child, so a recursive height would overflow the stack
+        for (int i = 0; i < 20000; i++) {
+            bst.add(i);
+        }
+
+        Assertions.assertEquals(20000, bst.height());
+
+        bst.remove(19999);
+        bst.remove(0);
+
+        Assertions.assertEquals(19998, bst.height());
+    }
+
+    @Test
+    void heightRandomOperations() {
+        Random rng = new Random();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        ArrayBinarySearchTree<Integer> expected = new ArrayBinarySearchTree<>(); // Same shape, since it removes by the same rule, but recomputes its height from scratch
+
+        for (int i = 0; i < 5000; i++) {
+            int element = rng.nextInt(1000);
+
+            if (rng.nextInt(3) > 0) {
+                bst.add(element);
+                expected.add(element);
+
+            } else {
+                bst.remove(element);
+                expected.remove(element);
+            }
+
+            Assertions.assertEquals(expected.height(), bst.height());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Comparator;
+
+// A balanced binary search tree that can be shared between threads, where readers never block
+// Writers are serialized, and publish a new persistent tree that copies only the path to the changed node, so a reader always sees a consistent tree
+class ConcurrentBinarySearchTree<T extends Comparable<T>> {
+    private volatile PersistentBinarySearchTree<T> tree; // Replaced as a whole by writers, and read once per operation by readers
+
+    ConcurrentBinarySearchTree() {
+        this(Comparator.naturalOrder());
+    }
+
+    ConcurrentBinarySearchTree(Comparator<? super T> comparator) {
+        super();
+        this.tree = new PersistentBinarySearchTree<T>(comparator);
+    }
+
+    int size() {
+        return this.tree.size();
+    }
+
+    boolean isEmpty() {
+        return this.tree.isEmpty();
+    }
+
+    int height() {
+        return this.tree.height();
+    }
+
+    boolean contains(T element) {
+        return this.tree.contains(element);
+    }
+
+    // Returns a point-in-time view of the tree in O(1), which later writes don't affect
+    PersistentBinarySearchTree<T> snapshot() {
+        return this.tree;
+    }
+
+    synchronized void clear() {
+        this.tree = this.tree.clear();
+    }
+
+    synchronized void add(T element) {
+        this.tree = this.tree.add(element);
+    }
+
+    synchronized boolean remove(T element) {
+        PersistentBinarySearchTree<T> tree = this.tree;
+        this.tree = tree.remove(element);
+
+        return this.tree != tree;
+    }
+
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        return this.tree.toStringArray();
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentBinarySearchTreeTest {
+    @Test
+    void size() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        Assertions.assertEquals(0, bst.size());
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+        bst.add(10);
+
+        Assertions.assertEquals(3, bst.size());
+    }
+
+    @Test
+    void containsAddedElement() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        bst.add(7);
+
+        Assertions.assertTrue(bst.contains(7));
+        Assertions.assertFalse(bst.contains(2));
+    }
+
+    @Test
+    void remove() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+
+        Assertions.assertTrue(bst.remove(7));
+        Assertions.assertFalse(bst.remove(7));
+        Assertions.assertEquals("[3, 10]", bst.toStringArray());
+    }
+
+    @Test
+    void clear() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+
+        bst.clear();
+
+        Assertions.assertTrue(bst.isEmpty());
+        Assertions.assertEquals(0, bst.height());
+    }
+
+    @Test
+    void heightSortedInsertion() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+        int n = 1 << 16;
+
+        for (int i = 0; i < n; i++) {
+            bst.add(i);
+        }
+
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void randomOperations() {
+        Random rng = new Random();
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 10000; i++) {
+            int element = rng.nextInt(1000);
+
+            if (rng.nextBoolean()) {
+                bst.add(element);
+                expected.add(element);
+
+            } else {
+                Assertions.assertEquals(expected.remove(element), bst.remove(element));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), bst.size());
+        Assertions.assertEquals(expected.toString(), bst.toStringArray());
+    }
+
+    @Test
+    void readersDuringWrites() throws InterruptedException {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        // Even elements are never removed, so readers must always find them
+        for (int i = 0; i < 1000; i += 2) {
+            bst.add(i);
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicBoolean missed = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    for (int i = 0; i < 1000; i += 2) {
+                        if (!bst.contains(i)) {
+                            missed.set(true);
+                        }
+                    }
+                }
+            });
+
+            threads.add(reader);
+            reader.start();
+        }
+
+        for (int t = 0; t < 2; t++) {
+            Thread writer = new Thread(() -> {
+                Random rng = new Random();
+
+                for (int i = 0; i < 20000; i++) {
+                    int element = rng.nextInt(500) * 2 + 1;
+
+                    if (rng.nextBoolean()) {
+                        bst.add(element);
+
+                    } else {
+                        bst.remove(element);
+                    }
+                }
+            });
+
+            threads.add(writer);
+            writer.start();
+        }
+
+        for (int t = 4; t < threads.size(); t++) {
+            threads.get(t).join();
+        }
+
+        done.set(true);
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertFalse(missed.get());
+    }
+
+    @Test
+    void snapshot() {
+        ConcurrentBinarySearchTree<Integer> bst = new ConcurrentBinarySearchTree<>();
+
+        bst.add(7);
+        bst.add(3);
+
+        PersistentBinarySearchTree<Integer> snapshot = bst.snapshot();
+
+        bst.add(10);
+        bst.remove(3);
+
+        Assertions.assertEquals("[3, 7]", snapshot.toStringArray());
+        Assertions.assertEquals("[7, 10]", bst.toStringArray());
+    }
+}
@@ -0,0 +1,433 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// A lock-free hash table in the style of Cliff Click's non-blocking hash map, where threads claim entries with compare-and-set rather than taking a lock
+// A key is never removed from its entry once it's claimed, so removal replaces the value with a tombstone, and a resize copies the live entries into a new table, with the help of every thread that writes during it
+// Reads never write or retry, so "get" and "contains" finish in a bounded amount of steps regardless of what other threads do
+class ConcurrentHashTableOpenAddressing<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int REPROBE_LIMIT = 10; // The least amount of probes before a table is considered too clustered, and is resized
+    private static final int COPY_CHUNK = 64; // The amount of entries that a writer copies each time it helps with a resize
+    private static final Object TOMBSTONE = new Object(); // A removed value, or as a key, an entry that was still empty when its table started being copied
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE); // An entry whose value has been copied into the next table, or had no value to copy
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TABLE;
+    private static final VarHandle NEXT;
+    private static final VarHandle SLOTS;
+    private static final VarHandle COPY_INDEX;
+    private static final VarHandle COPY_DONE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TABLE = lookup.findVarHandle(ConcurrentHashTableOpenAddressing.class, "table", Table.class);
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+            SLOTS = lookup.findVarHandle(Table.class, "slots", int.class);
+            COPY_INDEX = lookup.findVarHandle(Table.class, "copyIndex", int.class);
+            COPY_DONE = lookup.findVarHandle(Table.class, "copyDone", int.class);
+
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // A value that's being copied into the next table, which can no longer be changed in this table
+    private static final class Prime {
+        final Object value;
+
+        Prime(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Table {
+        final int capacity;
+        final Object[] entries; // The key of entry "i" is at "2i", and its value at "2i + 1", so that both are usually in the same cache line
+        volatile Table next; // The table that the entries are being copied into, or null if no resize has started
+        volatile int slots; // The amount of claimed keys, including the removed ones
+        volatile int copyIndex; // The first entry that no thread has claimed for copying yet
+        volatile int copyDone; // The amount of entries that have been copied
+
+        Table(int capacity) {
+            this.capacity = capacity;
+            this.entries = new Object[2 * capacity];
+        }
+    }
+
+    private volatile Table table;
+    private final LongAdder size;
+
+    ConcurrentHashTableOpenAddressing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ConcurrentHashTableOpenAddressing(int capacity) {
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+
+        this.table = new Table(Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(capacity - 1) << 1));
+        this.size = new LongAdder();
+    }
+
+    // Exact when no other thread is writing, and otherwise an estimate
+    int size() {
+        return (int) Math.max(0, this.size.sum());
+    }
+
+    boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    // Not atomic with respect to concurrent writes, which may be lost
+    void clear() {
+        this.table = new Table(DEFAULT_CAPACITY);
+        this.size.reset();
+    }
+
+    boolean contains(K key) {
+        return this.get(key) != null;
+    }
+
+    V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
+        }
+
+        Object value = this.get(this.table, key, hash(key));
+
+        return value == TOMBSTONE ? null : (V) value;
+    }
+
+    void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("The key and the value must not be null");
+        }
+
+        this.putValue(this.table, key, hash(key), value, false);
+    }
+
+    // Returns the value of the removed key, or null if the key doesn't exist
+    V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
+        }
+
+        Object value = this.putValue(this.table, key, hash(key), TOMBSTONE, false);
+
+        return value == TOMBSTONE ? null : (V) value;
+    }
+
+    // Weakly consistent with concurrent writes, which may or may not be included
+    List<K> keys() {
+        ArrayList<K> keys = new ArrayList<>();
+        Table table = this.settle();
+
+        for (int i = 0; i < table.capacity; i++) {
+            Object key = ENTRIES.getVolatile(table.entries, 2 * i);
+
+            if (key != null && key != TOMBSTONE) {
+                Object value = this.get(table, key, hash(key));
+
+                if (value != null && value != TOMBSTONE) {
+                    keys.add((K) key);
+                }
+            }
+        }
+
+        return keys;
+    }
+
+    // Weakly consistent with concurrent writes, which may or may not be included
+    List<V> values() {
+        ArrayList<V> values = new ArrayList<>();
+        Table table = this.settle();
+
+        for (int i = 0; i < table.capacity; i++) {
+            Object key = ENTRIES.getVolatile(table.entries, 2 * i);
+
+            if (key != null && key != TOMBSTONE) {
+                Object value = this.get(table, key, hash(key));
+
+                if (value != null && value != TOMBSTONE) {
+                    values.add((V) value);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    // Returns the value of the key, which is null or a tombstone if the key doesn't exist
+    private Object get(Table table, Object key, int hash) {
+        Object[] entries = table.entries;
+        int mask = table.capacity - 1;
+        int index = hash & mask;
+
+        for (int probes = 0; ; probes++) {
+            Object entry = ENTRIES.getVolatile(entries, 2 * index);
+
+            // Every writer passes through this entry before claiming a later one, or going to the next table, so the key exists nowhere
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry == key || (entry != TOMBSTONE && entry.equals(key))) {
+                Object value = ENTRIES.getVolatile(entries, 2 * index + 1);
+
+                if (!(value instanceof Prime)) {
+                    return value;
+                }
+
+                // Writes to the next table only happen after this entry is copied, so if the next table has no value yet, then the boxed value is still the latest one
+                Object newer = this.get(table.next, key, hash);
+
+                return newer != null ? newer : ((Prime) value).value;
+            }
+
+            // A writer never claims an entry past the reprobe limit, or past a closed entry, so the key can only be in the next table
+            if (entry == TOMBSTONE || probes >= reprobeLimit(table.capacity)) {
+                Table next = table.next;
+
+                return next == null ? null : this.get(next, key, hash);
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    // Puts the value, where a tombstone removes the key, and returns the previous value, which is null or a tombstone if there was none
+    // A copy only puts the value if the key has no value yet, since a value that's already in the next table is newer than the one being copied
+    private Object putValue(Table table, Object key, int hash, Object value, boolean copy) {
+        Object[] entries = table.entries;
+        int mask = table.capacity - 1;
+        int index = hash & mask;
+        boolean claimed = false;
+
+        for (int probes = 0; ; probes++) {
+            Object entry = ENTRIES.getVolatile(entries, 2 * index);
+
+            if (entry == null) {
+                if (value == TOMBSTONE) {
+                    return null; // There's nothing to remove
+                }
+
+                if (ENTRIES.compareAndSet(entries, 2 * index, null, key)) {
+                    claimed = true;
+                    break;
+                }
+
+                entry = ENTRIES.getVolatile(entries, 2 * index); // Another thread claimed the entry first, which may have been for the same key
+            }
+
+            if (entry == key || (entry != TOMBSTONE && entry.equals(key))) {
+                break;
+            }
+
+            if (entry == TOMBSTONE || probes >= reprobeLimit(table.capacity)) {
+                Table next = this.resize(table);
+
+                if (!copy) {
+                    this.helpCopy(table);
+                }
+
+                return this.putValue(next, key, hash, value, copy);
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        if (claimed && (int) SLOTS.getAndAdd(table, 1) + 1 >= table.capacity >> 1) {
+            this.resize(table);
+        }
+
+        // Once a resize has started, the entry is copied first, so that the write goes to the next table on top of the copied value
+        if (table.next != null) {
+            return this.putIntoNext(table, index, key, hash, value, copy);
+        }
+
+        while (true) {
+            Object previous = ENTRIES.getVolatile(entries, 2 * index + 1);
+
+            if (previous instanceof Prime) {
+                return this.putIntoNext(table, index, key, hash, value, copy);
+            }
+
+            if ((copy && previous != null) || (value == TOMBSTONE && (previous == null || previous == TOMBSTONE))) {
+                return previous;
+            }
+
+            if (ENTRIES.compareAndSet(entries, 2 * index + 1, previous, value)) {
+                if (!copy) {
+                    boolean existed = previous != null && previous != TOMBSTONE;
+
+                    if (!existed && value != TOMBSTONE) {
+                        this.size.increment();
+
+                    } else if (existed && value == TOMBSTONE) {
+                        this.size.decrement();
+                    }
+                }
+
+                return previous;
+            }
+        }
+    }
+
+    private Object putIntoNext(Table table, int index, Object key, int hash, Object value, boolean copy) {
+        Table next = table.next;
+
+        if (this.copyEntry(table, index, next)) {
+            this.copied(table, 1);
+        }
+
+        if (!copy) {
+            this.helpCopy(table);
+        }
+
+        return this.putValue(next, key, hash, value, copy);
+    }
+
+    // Starts a resize if there isn't one already, and returns the table that the entries are being copied into
+    private Table resize(Table table) {
+        Table next = table.next;
+
+        if (next != null) {
+            return next;
+        }
+
+        // The new capacity is based on the live keys, rather than the claimed ones, so that a table that's full of removed keys is rebuilt at the same capacity
+        int capacity = table.capacity;
+        int size = this.size();
+
+        while (size >= capacity >> 2) {
+            capacity <<= 1;
+        }
+
+        next = new Table(capacity);
+
+        if (NEXT.compareAndSet(table, null, next)) {
+            return next;
+
+        } else {
+            return table.next; // Another thread started the resize first
+        }
+    }
+
+    // Copies the next chunk of entries that no thread has claimed yet
+    private void helpCopy(Table table) {
+        if (table.copyIndex >= table.capacity) {
+            return;
+        }
+
+        int start = (int) COPY_INDEX.getAndAdd(table, COPY_CHUNK);
+        int end = Math.min(start + COPY_CHUNK, table.capacity);
+        int copied = 0;
+
+        for (int i = start; i < end; i++) {
+            if (this.copyEntry(table, i, table.next)) {
+                copied++;
+            }
+        }
+
+        this.copied(table, copied);
+    }
+
+    // Copies the entry into the next table, and returns true if this thread is the one that finished copying it
+    private boolean copyEntry(Table table, int index, Table next) {
+        Object[] entries = table.entries;
+        Object key = ENTRIES.getVolatile(entries, 2 * index);
+
+        // An empty entry is closed, so that no key can be claimed in it anymore
+        while (key == null) {
+            if (ENTRIES.compareAndSet(entries, 2 * index, null, TOMBSTONE)) {
+                return true;
+            }
+
+            key = ENTRIES.getVolatile(entries, 2 * index);
+        }
+
+        if (key == TOMBSTONE) {
+            return false;
+        }
+
+        // Box the value, so that writers can no longer change it in this table
+        Object value = ENTRIES.getVolatile(entries, 2 * index + 1);
+
+        while (!(value instanceof Prime)) {
+            Prime boxed = value == null || value == TOMBSTONE ? TOMBPRIME : new Prime(value);
+
+            if (ENTRIES.compareAndSet(entries, 2 * index + 1, value, boxed)) {
+                if (boxed == TOMBPRIME) {
+                    return true; // There was no value to copy
+                }
+
+                value = boxed;
+                break;
+            }
+
+            value = ENTRIES.getVolatile(entries, 2 * index + 1);
+        }
+
+        if (value == TOMBPRIME) {
+            return false;
+        }
+
+        this.putValue(next, key, hash(key), ((Prime) value).value, true);
+
+        // Only one thread can replace the boxed value, which is the one that finished the entry
+        return ENTRIES.compareAndSet(entries, 2 * index + 1, value, TOMBPRIME);
+    }
+
+    // Counts the entries that have been copied, and once every entry of the table has been, replaces the table with the next one
+    private void copied(Table table, int count) {
+        if (count == 0 || (int) COPY_DONE.getAndAdd(table, count) + count < table.capacity) {
+            return;
+        }
+
+        // A newer table can finish copying before an older one, in which case it's replaced too
+        Table top = this.table;
+
+        while (top.next != null && top.copyDone == top.capacity) {
+            TABLE.compareAndSet(this, top, top.next);
+            top = this.table;
+        }
+    }
+
+    // Finishes any resize in progress, and returns the table that holds every entry
+    private Table settle() {
+        Table table = this.table;
+
+        while (table.next != null) {
+            int copied = 0;
+
+            // Every entry is visited, rather than only the unclaimed chunks, since a thread that claimed a chunk may still be copying it
+            for (int i = 0; i < table.capacity; i++) {
+                if (this.copyEntry(table, i, table.next)) {
+                    copied++;
+                }
+            }
+
+            this.copied(table, copied);
+            table = table.next;
+        }
+
+        return table;
+    }
+
+    private static int reprobeLimit(int capacity) {
+        return REPROBE_LIMIT + (capacity >> 2);
+    }
+
+    // Spreads the high bits of the hash code into the low bits, which are the only ones that select an entry
+    private static int hash(Object key) {
+        int h = key.hashCode();
+
+        return h ^ (h >>> 16);
+    }
+}
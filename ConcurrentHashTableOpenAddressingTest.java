@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentHashTableOpenAddressingTest {
+    @Test
+    void sizeDefault() {
+        ConcurrentHashTableOpenAddressing<Integer, String> table = new ConcurrentHashTableOpenAddressing<>();
+
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void putGetRemove() {
+        ConcurrentHashTableOpenAddressing<Integer, String> table = new ConcurrentHashTableOpenAddressing<>();
+
+        table.put(1, "1");
+        table.put(1, "2");
+        table.put(2, "3");
+
+        Assertions.assertEquals(2, table.size());
+        Assertions.assertEquals("2", table.get(1));
+        Assertions.assertTrue(table.contains(2));
+        Assertions.assertFalse(table.contains(3));
+
+        Assertions.assertEquals("2", table.remove(1));
+        Assertions.assertNull(table.remove(1));
+        Assertions.assertNull(table.get(1));
+        Assertions.assertEquals(1, table.size());
+
+        table.put(1, "4");
+
+        Assertions.assertEquals("4", table.get(1));
+        Assertions.assertEquals(2, table.size());
+    }
+
+    @Test
+    void nullArguments() {
+        ConcurrentHashTableOpenAddressing<Integer, String> table = new ConcurrentHashTableOpenAddressing<>();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.put(null, "1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.put(1, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.get(null));
+    }
+
+    @Test
+    void clear() {
+        ConcurrentHashTableOpenAddressing<Integer, String> table = new ConcurrentHashTableOpenAddressing<>();
+
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i + "");
+        }
+
+        table.clear();
+
+        Assertions.assertTrue(table.isEmpty());
+        Assertions.assertFalse(table.contains(0));
+    }
+
+    @Test
+    void keysAndValues() {
+        ConcurrentHashTableOpenAddressing<Integer, String> table = new ConcurrentHashTableOpenAddressing<>();
+        List<Integer> expectedKeys = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i + "");
+            expectedKeys.add(i);
+        }
+
+        for (int i = 0; i < 1000; i += 2) {
+            table.remove(i);
+            expectedKeys.remove(Integer.valueOf(i));
+        }
+
+        List<Integer> keys = table.keys();
+        Collections.sort(keys);
+
+        Assertions.assertEquals(expectedKeys, keys);
+        Assertions.assertEquals(500, table.values().size());
+    }
+
+    @Test
+    void collidingHashCodes() {
+        ConcurrentHashTableOpenAddressing<Long, Integer> table = new ConcurrentHashTableOpenAddressing<>();
+
+        // "Long" hashes "i << 32" and "i" to the same value
+        for (long i = 1; i <= 200; i++) {
+            table.put(i, 1);
+            table.put(i << 32, 2);
+        }
+
+        for (long i = 1; i <= 200; i++) {
+            Assertions.assertEquals(1, table.get(i));
+            Assertions.assertEquals(2, table.get(i << 32));
+        }
+
+        Assertions.assertEquals(400, table.size());
+    }
+
+    @Test
+    void randomOperations() {
+        Random rng = new Random();
+        ConcurrentHashTableOpenAddressing<Integer, Integer> table = new ConcurrentHashTableOpenAddressing<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+
+        // A small range of keys with frequent removals makes most resizes rebuild tables that are full of removed keys
+        for (int i = 0; i < 200000; i++) {
+            int key = rng.nextInt(5000);
+
+            if (rng.nextInt(3) > 0) {
+                table.put(key, i);
+                expected.put(key, i);
+
+            } else {
+                Assertions.assertEquals(expected.remove(key), table.remove(key));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), table.size());
+
+        for (int key = 0; key < 5000; key++) {
+            Assertions.assertEquals(expected.get(key), table.get(key));
+        }
+    }
+
+    @Test
+    void concurrentWriters() throws InterruptedException {
+        ConcurrentHashTableOpenAddressing<Integer, Integer> table = new ConcurrentHashTableOpenAddressing<>();
+        int threads = 8;
+        int keysPerThread = 20000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        // Each thread owns its own keys, so the final contents are deterministic, while every resize is shared
+        for (int t = 0; t < threads; t++) {
+            int offset = t * keysPerThread;
+
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+
+                    for (int i = 0; i < keysPerThread; i++) {
+                        table.put(offset + i, offset + i);
+                    }
+
+                    for (int i = 0; i < keysPerThread; i += 2) {
+                        Assertions.assertEquals(offset + i, table.remove(offset + i));
+                    }
+
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+
+            writer.start();
+            writers.add(writer);
+        }
+
+        start.countDown();
+
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Assertions.assertEquals(List.of(), failures);
+        Assertions.assertEquals(threads * keysPerThread / 2, table.size());
+        Assertions.assertEquals(threads * keysPerThread / 2, table.keys().size());
+
+        for (int key = 0; key < threads * keysPerThread; key++) {
+            Assertions.assertEquals(key % 2 == 0 ? null : key, table.get(key));
+        }
+    }
+
+    @Test
+    void readersDuringResizes() throws InterruptedException {
+        ConcurrentHashTableOpenAddressing<Integer, Integer> table = new ConcurrentHashTableOpenAddressing<>();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> readers = new ArrayList<>();
+
+        // These keys are never removed, so readers must always find them, no matter which table they're in
+        for (int i = 0; i < 1000; i++) {
+            table.put(-i - 1, i);
+        }
+
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                Random rng = new Random();
+
+                try {
+                    while (!done.get()) {
+                        int i = rng.nextInt(1000);
+                        Assertions.assertEquals(i, table.get(-i - 1));
+                    }
+
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int i = 0; i < 200000; i++) {
+            table.put(i, i);
+
+            if (i >= 100) {
+                table.remove(i - 100);
+            }
+        }
+
+        done.set(true);
+
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assertions.assertEquals(List.of(), failures);
+        Assertions.assertEquals(1100, table.size());
+    }
+}
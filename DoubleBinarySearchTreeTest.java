@@ -0,0 +1,59 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DoubleBinarySearchTreeTest {
+    @Test
+    void specialValues() {
+        DoubleBinarySearchTree bst = new DoubleBinarySearchTree();
+
+        bst.add(Double.NaN);
+        bst.add(Double.NaN);
+        bst.add(0.0);
+        bst.add(-0.0);
+        bst.add(Double.NEGATIVE_INFINITY);
+
+        Assertions.assertEquals(4, bst.size());
+        Assertions.assertTrue(bst.contains(Double.NaN));
+        Assertions.assertEquals("[-Infinity, -0.0, 0.0, NaN]", bst.toStringArray());
+    }
+
+    @Test
+    void remove() {
+        DoubleBinarySearchTree bst = new DoubleBinarySearchTree();
+
+        bst.add(0.5);
+        bst.add(0.25);
+        bst.add(0.75);
+
+        Assertions.assertTrue(bst.remove(0.5));
+        Assertions.assertFalse(bst.remove(0.5));
+        Assertions.assertEquals("[0.25, 0.75]", bst.toStringArray());
+    }
+
+    @Test
+    void randomOperations() {
+        for (boolean balanced : new boolean[]{false, true}) {
+            Random rng = new Random();
+            DoubleBinarySearchTree bst = new DoubleBinarySearchTree(balanced);
+            TreeSet<Double> expected = new TreeSet<>();
+
+            for (int i = 0; i < 10000; i++) {
+                double element = rng.nextInt(1000) / 8.0;
+
+                if (rng.nextBoolean()) {
+                    bst.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), bst.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), bst.size());
+            Assertions.assertEquals(expected.toString(), bst.toStringArray());
+        }
+    }
+}
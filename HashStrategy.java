@@ -0,0 +1,42 @@
+import java.security.SecureRandom;
+
+// Turns the hash code of a key into the hash that a hash table indexes with
+// Hash tables only index with the low bits of the hash, so a hash code whose entropy is in its high bits, or a sequence of keys with a regular stride, can pile up in a few indices unless the bits are mixed
+@FunctionalInterface
+interface HashStrategy {
+    // The hash code itself, which is the cheapest, and keeps sequential integer keys in sequential indices
+    HashStrategy IDENTITY = Object::hashCode;
+
+    // The finalizer of MurmurHash3, where every bit of the hash code affects every bit of the hash
+    HashStrategy MURMUR3 = key -> mix32(key.hashCode());
+
+    int hash(Object key);
+
+    // Mixes the hash code with a random seed, so that which keys share an index differs between instances, and can't be predicted by whoever picks the keys
+    // Keys with equal hash codes still collide, so this only hardens against keys that are chosen to collide after the hash code is reduced to an index
+    static HashStrategy seeded() {
+        long seed = new SecureRandom().nextLong();
+
+        return key -> (int) mix64((key.hashCode() & 0xFFFFFFFFL) ^ seed);
+    }
+
+    static int mix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+
+    static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+}
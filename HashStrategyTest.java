@@ -0,0 +1,61 @@
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HashStrategyTest {
+    @Test
+    void identity() {
+        Assertions.assertEquals("abc".hashCode(), HashStrategy.IDENTITY.hash("abc"));
+        Assertions.assertEquals(42, HashStrategy.IDENTITY.hash(42));
+    }
+
+    @Test
+    void murmur3SpreadsHighBits() {
+        Set<Integer> indices = new HashSet<>();
+
+        // These hash codes are all 0 in their low 16 bits, so without mixing they would share a single index
+        for (int i = 0; i < 1024; i++) {
+            indices.add(HashStrategy.MURMUR3.hash(i << 16) & 1023);
+        }
+
+        Assertions.assertTrue(indices.size() > 512);
+    }
+
+    @Test
+    void murmur3IsDeterministic() {
+        Assertions.assertEquals(HashStrategy.MURMUR3.hash("abc"), HashStrategy.MURMUR3.hash("abc"));
+        Assertions.assertEquals(HashStrategy.mix32("abc".hashCode()), HashStrategy.MURMUR3.hash("abc"));
+    }
+
+    @Test
+    void seeded() {
+        HashStrategy first = HashStrategy.seeded();
+        HashStrategy second = HashStrategy.seeded();
+        int differences = 0;
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(first.hash(i), first.hash(i));
+
+            if (first.hash(i) != second.hash(i)) {
+                differences++;
+            }
+        }
+
+        // Two seeds agree on a key with a probability of 2^-32
+        Assertions.assertTrue(differences > 90);
+    }
+
+    @Test
+    void seededSpreadsHighBits() {
+        HashStrategy strategy = HashStrategy.seeded();
+        Set<Integer> indices = new HashSet<>();
+
+        for (int i = 0; i < 1024; i++) {
+            indices.add(strategy.hash(i << 16) & 1023);
+        }
+
+        Assertions.assertTrue(indices.size() > 512);
+    }
+}
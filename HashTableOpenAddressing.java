@@ -1,10 +1,162 @@
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
-// Open addressing via quadratic probing
+// Open addressing via quadratic probing by default, or via linear or Robin Hood probing
 class HashTableOpenAddressing<K, V> {
+    enum Probing {
+        LINEAR, // Probes consecutive entries, which stay within the same cache lines for as long as possible
+        QUADRATIC, // Probes at triangular number offsets, which breaks up clusters of consecutive entries
+        ROBIN_HOOD // Linear probing where an entry that's further from its home index takes the place of an entry that's closer, and removals shift entries back instead of leaving tombstones
+    }
+
+    // Iterates the entries in place, in no particular order, and can be reset and reused, so that repeated iterations don't allocate anything
+    // A cursor is open from the first call to "next" until "next" returns false or "reset" is called, and while it's open, lookups don't move entries, so they're safe between calls
+    // The hash table must not be modified while a cursor is open, since a modification can move entries, or start a migration
+    class EntryCursor {
+        private int index; // The index of the current entry, or -1 before the first call to "next"
+        private boolean open;
+
+        EntryCursor() {
+            super();
+            this.reset();
+        }
+
+        // Moves to the next entry, and returns false if there are no more entries
+        boolean next() {
+            if (this.index == -1) {
+                startIteration();
+                this.open = true;
+            }
+
+            for (this.index++; this.index < capacity; this.index++) {
+                if (isEntry(this.index)) {
+                    return true;
+                }
+            }
+
+            this.close();
+            return false;
+        }
+
+        K key() {
+            this.checkEntry();
+            return keys[this.index];
+        }
+
+        V value() {
+            this.checkEntry();
+            return values[this.index];
+        }
+
+        // Moves back to before the first entry
+        void reset() {
+            this.close();
+            this.index = -1;
+        }
+
+        private void close() {
+            if (this.open) {
+                this.open = false;
+                iterations--;
+            }
+        }
+
+        private void checkEntry() {
+            if (this.index == -1 || this.index >= capacity) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    // A copy of the recorded stats at one point in time, which later operations don't change
+    static final class Stats {
+        private final long[] probeLengths;
+        private final int maxProbeLength;
+        private final int size;
+        private final int capacity;
+        private final int tombstones;
+        private final int resizes;
+        private final long resizeNanos;
+
+        private Stats(long[] probeLengths, int maxProbeLength, int size, int capacity, int tombstones, int resizes, long resizeNanos) {
+            super();
+            this.probeLengths = probeLengths;
+            this.maxProbeLength = maxProbeLength;
+            this.size = size;
+            this.capacity = capacity;
+            this.tombstones = tombstones;
+            this.resizes = resizes;
+            this.resizeNanos = resizeNanos;
+        }
+
+        // The amount of probe sequences that took each amount of probes past the home entry, where the last element counts every longer sequence too
+        long[] probeLengths() {
+            return this.probeLengths.clone();
+        }
+
+        long probes() {
+            long probes = 0;
+
+            for (long count : this.probeLengths) {
+                probes += count;
+            }
+
+            return probes;
+        }
+
+        // Counts the sequences of the last element of "probeLengths" as if they were that long, so it's a lower bound if "maxProbeLength" is longer
+        double averageProbeLength() {
+            long probes = 0;
+            long total = 0;
+
+            for (int i = 0; i < this.probeLengths.length; i++) {
+                probes += this.probeLengths[i];
+                total += i * this.probeLengths[i];
+            }
+
+            return probes == 0 ? 0 : (double) total / probes;
+        }
+
+        int maxProbeLength() {
+            return this.maxProbeLength;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int capacity() {
+            return this.capacity;
+        }
+
+        int tombstones() {
+            return this.tombstones;
+        }
+
+        // The fraction of the entries that are tombstones, which lengthen probe sequences just like entries do
+        double tombstoneRatio() {
+            return (double) this.tombstones / this.capacity;
+        }
+
+        int resizes() {
+            return this.resizes;
+        }
+
+        // The time spent resizing, not counting the entries that an incremental resize migrates during later operations
+        long resizeNanos() {
+            return this.resizeNanos;
+        }
+    }
+
     private static final int DEFAULT_CAPACITY = 16;
     private static final double DEFAULT_LOADFACTOR = 0.5;
+    private static final double DEFAULT_TOMBSTONE_FRACTION = 0.5;
+    private static final int BATCH_SIZE = 64; // The amount of keys of a batch operation whose hashes and home entries are loaded together
+    private static final int MIGRATION_STEP = 8; // The least amount of old entries that each operation migrates while an incremental resize is in progress
+    private static final int PROBE_LENGTHS = 33; // The amount of probe lengths that are counted separately, where the last one also counts every longer probe sequence
 
     private final K TOMBSTONE = (K) new Object(); // Represents a deleted key, which is useful for finding keys that collided
 
@@ -14,7 +166,24 @@ class HashTableOpenAddressing<K, V> {
     private int threshold;
     private K[] keys;
     private V[] values;
+    private int[] hashes; // The hash of the key in each entry, which is compared before "equals", so that most mismatches never touch the key
     private int tombstones;
+    private double tombstoneFraction; // The fraction of the occupied entries that must be tombstones for the hash table to be rehashed at the same capacity, rather than doubled, once it's full
+    private Probing probing;
+    private HashStrategy hashStrategy; // Turns the hash codes of the keys into the hashes that the table is indexed with, and that are cached in "hashes"
+    private boolean incremental; // Whether or not resizing migrates the entries a few at a time during later operations, rather than all at once
+    private K[] oldKeys; // The arrays that are being migrated from, or null if no incremental resize is in progress
+    private V[] oldValues;
+    private int[] oldHashes;
+    private int oldSize; // The amount of entries that are still in the old arrays
+    private int migrated; // The index of the next old entry to migrate
+    private int migrationStep;
+    private int iterations; // The amount of "forEach" calls that are running and cursors that are open, during which lookups don't move entries, so iterations neither skip nor repeat any entry
+    private boolean recordStats; // Whether or not probe lengths and resizes are recorded, which is off by default, so that the hot path only checks this
+    private long[] probeLengths; // The amount of probe sequences of each length, or null if stats aren't recorded
+    private int maxProbeLength;
+    private int resizes;
+    private long resizeNanos;
 
     HashTableOpenAddressing() {
         this(DEFAULT_CAPACITY, DEFAULT_LOADFACTOR);
@@ -25,8 +194,32 @@ class HashTableOpenAddressing<K, V> {
     }
 
     HashTableOpenAddressing(int capacity, double loadFactor) {
+        this(capacity, loadFactor, Probing.QUADRATIC);
+    }
+
+    HashTableOpenAddressing(int capacity, double loadFactor, Probing probing) {
+        this(capacity, loadFactor, probing, false);
+    }
+
+    HashTableOpenAddressing(int capacity, double loadFactor, Probing probing, boolean incremental) {
+        this(capacity, loadFactor, probing, incremental, DEFAULT_TOMBSTONE_FRACTION);
+    }
+
+    HashTableOpenAddressing(int capacity, double loadFactor, Probing probing, boolean incremental, double tombstoneFraction) {
+        this(capacity, loadFactor, probing, incremental, tombstoneFraction, HashStrategy.IDENTITY);
+    }
+
+    HashTableOpenAddressing(int capacity, double loadFactor, Probing probing, boolean incremental, double tombstoneFraction, HashStrategy hashStrategy) {
         super();
 
+        if (probing == null) {
+            throw new IllegalArgumentException("The probing strategy must not be null");
+        }
+
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("The hash strategy must not be null");
+        }
+
         if (capacity <= 0) {
             throw new IllegalArgumentException("The capacity must be greater than 0");
         }
@@ -35,94 +228,309 @@ class HashTableOpenAddressing<K, V> {
             throw new IllegalArgumentException("The load factor must be a finite number greater than 0, and less than or equal to 1");
         }
 
+        if (tombstoneFraction <= 0 || tombstoneFraction > 1 || Double.isNaN(tombstoneFraction)) {
+            throw new IllegalArgumentException("The tombstone fraction must be greater than 0, and less than or equal to 1");
+        }
+
         this.size = 0;
         this.capacity = Math.max(DEFAULT_CAPACITY, this.nextPowerOf2(capacity)); // The capacity must be a power of 2 in order for quadratic probing to cover all entries of the hash table
         this.loadFactor = loadFactor;
         this.threshold = (int) (this.capacity * this.loadFactor);
         this.keys = (K[]) new Object[this.capacity];
         this.values = (V[]) new Object[this.capacity];
+        this.hashes = new int[this.capacity];
+        this.probing = probing;
+        this.incremental = incremental;
+        this.tombstoneFraction = tombstoneFraction;
+        this.hashStrategy = hashStrategy;
+
+        // The next resize is triggered after at least "tombstoneFraction * threshold" more insertions or removals, and those have to migrate all of the old entries before then
+        this.migrationStep = Math.max(MIGRATION_STEP, (int) Math.ceil(1 / (loadFactor * tombstoneFraction)));
     }
 
     int size() {
-        return this.size;
+        return this.size + this.oldSize;
     }
 
     boolean isEmpty() {
-        return this.size == 0;
+        return this.size() == 0;
+    }
+
+    boolean isIncremental() {
+        return this.incremental;
+    }
+
+    // Whether or not an incremental resize is in progress, in which case entries are split between the old and the new arrays
+    boolean isMigrating() {
+        return this.oldKeys != null;
+    }
+
+    // Shrinks the capacity to the smallest one that holds the entries without reaching the load factor, and clears every tombstone
+    void trimToSize() {
+        if (this.isMigrating()) {
+            this.migrate(this.oldKeys.length);
+        }
+
+        int capacity = Math.max(DEFAULT_CAPACITY, this.nextPowerOf2((int) Math.ceil((this.size + 1) / this.loadFactor)));
+
+        if (capacity < this.capacity) {
+            this.rehash(capacity, false);
+
+        } else if (this.tombstones > 0) {
+            this.rehashInPlace();
+        }
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    boolean isRecordingStats() {
+        return this.recordStats;
+    }
+
+    // Starts recording stats from scratch, or stops recording them and drops what was recorded
+    void recordStats(boolean recordStats) {
+        this.recordStats = recordStats;
+        this.probeLengths = recordStats ? new long[PROBE_LENGTHS] : null;
+        this.maxProbeLength = 0;
+        this.resizes = 0;
+        this.resizeNanos = 0;
+    }
+
+    // Returns a copy of the recorded stats, or null if the hash table doesn't record stats
+    // Every probe sequence of the new arrays is recorded, including those of inserting entries during a resize or a migration, but not lookups in the old arrays of a migration
+    Stats stats() {
+        if (!this.recordStats) {
+            return null;
+        }
+
+        return new Stats(this.probeLengths.clone(), this.maxProbeLength, this.size(), this.capacity, this.tombstones, this.resizes, this.resizeNanos);
+    }
+
+    // Starts recording stats over, without affecting the entries
+    void resetStats() {
+        if (this.recordStats) {
+            this.recordStats(true);
+        }
     }
 
     void clear() {
         this.keys = (K[]) new Object[this.capacity];
         this.values = (V[]) new Object[this.capacity];
+        this.hashes = new int[this.capacity];
         this.size = 0;
+        this.tombstones = 0;
+        this.oldKeys = null;
+        this.oldValues = null;
+        this.oldHashes = null;
+        this.oldSize = 0;
     }
 
     boolean contains(K key) {
-        return this.keys[this.probeIndex(key)] == key;
+        int index = this.indexOf(key);
+
+        if (index != -1) {
+            return true;
+
+        } else {
+            return this.isMigrating() && this.oldIndex(key, this.hashStrategy.hash(key)) != -1;
+        }
     }
 
     V get(K key) {
-        return this.values[this.probeIndex(key)];
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
+        }
+
+        return this.get(key, this.hashStrategy.hash(key));
     }
 
     V remove(K key) {
-        int index = this.probeIndex(key);
-        V value = null;
+        int index = this.indexOf(key);
 
-        if (this.keys[index] == key) {
-            value = this.values[index];
-            this.keys[index] = TOMBSTONE;
-            this.values[index] = null;
-            this.tombstones++;
-            this.size--;
+        if (index != -1) {
+            V value = this.values[index];
+
+            if (this.probing == Probing.ROBIN_HOOD) {
+                this.removeRobinHood(index);
+
+            } else {
+                this.keys[index] = TOMBSTONE;
+                this.values[index] = null;
+                this.tombstones++;
+                this.size--;
+            }
+
+            return value;
         }
 
-        return value;
+        if (this.isMigrating()) {
+            index = this.oldIndex(key, this.hashStrategy.hash(key));
+
+            if (index != -1) {
+                return this.removeOld(index);
+            }
+        }
+
+        return null;
     }
 
     void put(K key, V value) {
-        if (this.size + this.tombstones >= this.threshold) {
-            this.resizeTable();
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
         }
 
-        int index = this.probeIndex(key);
+        this.put(key, this.hashStrategy.hash(key), value);
+    }
 
-        if (this.keys[index] == key) {
-            this.values[index] = value;
+    // Looks up each key, and stores its value at the same index of "out", or null if the key doesn't exist
+    // The hashes of a batch are computed first, and then their home entries are loaded, and since neither depends on the previous key, the cache misses of the batch overlap rather than happening one after another
+    void getAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("The output array must be at least as long as the keys");
+        }
 
-        } else {
-            if (this.keys[index] == TOMBSTONE) {
-                this.tombstones--;
+        int[] hashes = new int[Math.min(keys.length, BATCH_SIZE)];
+        int[] homes = new int[hashes.length];
+        K[] homeKeys = (K[]) new Object[hashes.length];
+
+        for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, keys.length);
+
+            for (int i = start; i < end; i++) {
+                if (keys[i] == null) {
+                    throw new IllegalArgumentException("The keys must not be null");
+                }
+
+                hashes[i - start] = this.hashStrategy.hash(keys[i]);
             }
 
-            this.keys[index] = key;
-            this.values[index] = value;
-            this.size++;
+            for (int i = 0; i < end - start; i++) {
+                homes[i] = this.hashToIndex(hashes[i]);
+                homeKeys[i] = this.keys[homes[i]];
+            }
+
+            // The home entry resolves most lookups, and the rest take the usual probe sequence, which is also the only way to reach the old arrays during a migration
+            for (int i = start; i < end; i++) {
+                int hash = hashes[i - start];
+                int home = homes[i - start];
+                K entry = this.keys[home];
+
+                // An earlier lookup of the batch can move entries, in which case the home entry that was loaded is out of date
+                if (entry != homeKeys[i - start]) {
+                    out[i] = this.get(keys[i], hash);
+
+                } else if (entry == null && !this.isMigrating()) {
+                    out[i] = null;
+
+                    if (this.recordStats) {
+                        this.recordProbe(0);
+                    }
+
+                } else if (entry != null && entry != TOMBSTONE && this.hashes[home] == hash && (entry == keys[i] || entry.equals(keys[i]))) {
+                    out[i] = this.values[home];
+
+                    if (this.recordStats) {
+                        this.recordProbe(0);
+                    }
+
+                } else {
+                    out[i] = this.get(keys[i], hash);
+                }
+            }
         }
     }
 
-    List<K> keys() {
-        ArrayList<K> keys = new ArrayList<>();
+    // Puts each key with the value at the same index, in order, so a later duplicate key overwrites an earlier one
+    void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("The keys and the values must have the same length");
+        }
 
-        for (int i = 0; i < this.capacity; i++) {
-            if (this.keys[i] != null && this.keys[i] != TOMBSTONE) {
-                keys.add(this.keys[i]);
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("The keys must not be null");
+            }
+        }
+
+        // Grow once for the whole batch, rather than doubling several times along the way, unless resizes are meant to be spread out
+        // The batch may only update existing keys, so it's only assumed to end up with as many entries as the larger of the table and the batch, and "put" grows the table further if that's too few
+        if (!this.incremental) {
+            int entries = Math.max(this.size, keys.length);
+            int capacity = this.capacity;
+
+            while (entries >= (int) (this.loadFactor * capacity)) {
+                capacity *= 2;
+            }
+
+            if (capacity > this.capacity) {
+                this.rehash(capacity, false);
             }
         }
 
+        int[] hashes = new int[Math.min(keys.length, BATCH_SIZE)];
+
+        for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, keys.length);
+
+            for (int i = start; i < end; i++) {
+                hashes[i - start] = this.hashStrategy.hash(keys[i]);
+            }
+
+            for (int i = start; i < end; i++) {
+                this.put(keys[i], hashes[i - start], values[i]);
+            }
+        }
+    }
+
+    // Returns a copy of the keys, which allocates a new list on every call, unlike "forEach" and "cursor"
+    List<K> keys() {
+        ArrayList<K> keys = new ArrayList<>(this.size());
+        this.forEach((key, value) -> keys.add(key));
+
         return keys;
     }
 
+    // Returns a copy of the values, which allocates a new list on every call, unlike "forEach" and "cursor"
     List<V> values() {
-        ArrayList<V> values = new ArrayList<>();
+        ArrayList<V> values = new ArrayList<>(this.size());
+        this.forEach((key, value) -> values.add(value));
 
-        for (int i = 0; i < this.capacity; i++) {
-            if (this.keys[i] != null && this.keys[i] != TOMBSTONE) {
-                values.add(this.values[i]);
+        return values;
+    }
+
+    // Performs the action on each entry, in no particular order, without copying the entries
+    // The action may look up keys, but must not modify the hash table
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        this.startIteration();
+
+        try {
+            K[] keys = this.keys;
+            V[] values = this.values;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null && keys[i] != TOMBSTONE) {
+                    action.accept(keys[i], values[i]);
+                }
             }
+
+        } finally {
+            this.iterations--;
         }
+    }
 
-        return values;
+    EntryCursor cursor() {
+        return new EntryCursor();
+    }
+
+    // Finishes an incremental resize, so that every entry is in the arrays that are iterated, and lookups have nothing left to migrate
+    private void startIteration() {
+        if (this.isMigrating()) {
+            this.migrate(this.oldKeys.length);
+        }
+
+        this.iterations++;
     }
 
     private int nextPowerOf2(int n) {
@@ -146,18 +554,108 @@ class HashTableOpenAddressing<K, V> {
         }
     }
 
-    // Returns the index of the key, or if the key doesn't exist, then the index of where the key would be
-    private int probeIndex(K key) {
+    private boolean isEntry(int index) {
+        return this.keys[index] != null && this.keys[index] != TOMBSTONE;
+    }
+
+    // Whether or not the entry holds the key, where comparing the cached hashes first avoids most calls to "equals"
+    private boolean matches(int index, int hash, K key) {
+        K entry = this.keys[index];
+        return this.hashes[index] == hash && entry != TOMBSTONE && (entry == key || entry.equals(key));
+    }
+
+    private V get(K key, int hash) {
+        int index = this.indexOf(key, hash);
+
+        if (index != -1) {
+            return this.values[index];
+        }
+
+        if (this.isMigrating()) {
+            index = this.oldIndex(key, hash);
+
+            if (index != -1) {
+                return this.oldValues[index];
+            }
+        }
+
+        return null;
+    }
+
+    private void put(K key, int hash, V value) {
+        if (this.size + this.tombstones >= this.threshold) {
+            this.resizeTable();
+        }
+
+        if (this.isMigrating()) {
+            this.migrate(this.migrationStep);
+
+            // The key moves into the new arrays, so that it's never in both
+            if (this.isMigrating()) {
+                int index = this.oldIndex(key, hash);
+
+                if (index != -1) {
+                    this.removeOld(index);
+                }
+            }
+        }
+
+        this.insert(key, hash, value);
+    }
+
+    // Returns the index of the key in the new arrays, or -1 if the key isn't there, after migrating a step of old entries
+    private int indexOf(K key) {
         if (key == null) {
             throw new IllegalArgumentException("The key must not be null");
         }
 
-        int hash = key.hashCode();
+        return this.indexOf(key, this.hashStrategy.hash(key));
+    }
+
+    private int indexOf(K key, int hash) {
+        if (this.isMigrating()) {
+            this.migrate(this.migrationStep);
+        }
+
+        if (this.probing == Probing.ROBIN_HOOD) {
+            return this.robinHoodIndex(key, hash);
+
+        } else {
+            int index = this.probeIndex(key, hash);
+            return this.isEntry(index) ? index : -1;
+        }
+    }
+
+    private void insert(K key, int hash, V value) {
+        if (this.probing == Probing.ROBIN_HOOD) {
+            this.insertRobinHood(key, hash, value);
+            return;
+        }
+
+        int index = this.probeIndex(key, hash);
+
+        if (this.isEntry(index)) {
+            this.values[index] = value;
+
+        } else {
+            if (this.keys[index] == TOMBSTONE) {
+                this.tombstones--;
+            }
+
+            this.keys[index] = key;
+            this.values[index] = value;
+            this.hashes[index] = hash;
+            this.size++;
+        }
+    }
+
+    // Returns the index of the key, or if the key doesn't exist, then the index of where the key would be
+    private int probeIndex(K key, int hash) {
         int index = this.hashToIndex(hash);
         int x = 0; // The quadratic probing variable
         int tombstoneIndex = -1; // The index of the first tombstone that's encountered
 
-        while (this.keys[index] != key) {
+        while (this.keys[index] == null || !this.matches(index, hash, key)) {
             // If the first tombstone is encountered, then save the index
             if (this.keys[index] == TOMBSTONE && tombstoneIndex == -1) {
                 tombstoneIndex = index;
@@ -165,6 +663,10 @@ class HashTableOpenAddressing<K, V> {
 
             // If the key doesn't exist, then return the index of where the key would be
             if (this.keys[index] == null) {
+                if (this.recordStats) {
+                    this.recordProbe(x);
+                }
+
                 if (tombstoneIndex == -1) {
                     return index;
 
@@ -174,14 +676,19 @@ class HashTableOpenAddressing<K, V> {
             }
 
             x++;
-            index = this.hashToIndex(hash + this.quadraticProbingFunction(x));
+            index = this.probe(hash, x);
         }
 
-        // If a tombstone was encountered, then replace it with the current key, and replace the current key will "null"
-        if (tombstoneIndex != -1) {
-            this.keys[index] = TOMBSTONE;
-            this.keys[tombstoneIndex] = key;
+        if (this.recordStats) {
+            this.recordProbe(x);
+        }
+
+        // If a tombstone was encountered, then replace it with the current key, and replace the current key will "null", unless an iteration is in progress
+        if (tombstoneIndex != -1 && this.iterations == 0) {
+            this.keys[tombstoneIndex] = this.keys[index];
             this.values[tombstoneIndex] = this.values[index];
+            this.hashes[tombstoneIndex] = hash;
+            this.keys[index] = TOMBSTONE;
             this.values[index] = null;
 
             return tombstoneIndex;
@@ -191,16 +698,269 @@ class HashTableOpenAddressing<K, V> {
         }
     }
 
+    // Returns the index of the key, or -1 if the key doesn't exist
+    private int robinHoodIndex(K key, int hash) {
+        int index = this.hashToIndex(hash);
+
+        int distance = 0;
+
+        // Entries along a probe sequence are ordered by their distance from home, so the key can't be past an entry that's closer to its home than the key would be
+        for (; this.keys[index] != null && distance <= this.distanceFromHome(index); distance++) {
+            if (this.matches(index, hash, key)) {
+                if (this.recordStats) {
+                    this.recordProbe(distance);
+                }
+
+                return index;
+            }
+
+            index = (index + 1) & (this.capacity - 1);
+        }
+
+        if (this.recordStats) {
+            this.recordProbe(distance);
+        }
+
+        return -1;
+    }
+
+    private void insertRobinHood(K key, int hash, V value) {
+        int index = this.robinHoodIndex(key, hash);
+
+        if (index != -1) {
+            this.values[index] = value;
+            return;
+        }
+
+        index = this.hashToIndex(hash);
+        int distance = 0;
+
+        while (this.keys[index] != null) {
+            int residentDistance = this.distanceFromHome(index);
+
+            // Take from the rich (entries close to their home) and give to the poor, which keeps the longest probe sequences short
+            if (residentDistance < distance) {
+                K residentKey = this.keys[index];
+                V residentValue = this.values[index];
+                int residentHash = this.hashes[index];
+                this.keys[index] = key;
+                this.values[index] = value;
+                this.hashes[index] = hash;
+                key = residentKey;
+                value = residentValue;
+                hash = residentHash;
+                distance = residentDistance;
+            }
+
+            index = (index + 1) & (this.capacity - 1);
+            distance++;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.hashes[index] = hash;
+        this.size++;
+    }
+
+    // Shifts the following entries of the probe sequence back by one, until an entry that's already at its home, so no tombstone is necessary
+    private void removeRobinHood(int index) {
+        int next = (index + 1) & (this.capacity - 1);
+
+        while (this.keys[next] != null && this.distanceFromHome(next) > 0) {
+            this.keys[index] = this.keys[next];
+            this.values[index] = this.values[next];
+            this.hashes[index] = this.hashes[next];
+            index = next;
+            next = (next + 1) & (this.capacity - 1);
+        }
+
+        this.keys[index] = null;
+        this.values[index] = null;
+        this.size--;
+    }
+
+    // Counts a probe sequence that took "length" probes past the home entry
+    private void recordProbe(int length) {
+        this.probeLengths[Math.min(length, PROBE_LENGTHS - 1)]++;
+
+        if (length > this.maxProbeLength) {
+            this.maxProbeLength = length;
+        }
+    }
+
+    private int distanceFromHome(int index) {
+        return (index - this.hashToIndex(this.hashes[index])) & (this.capacity - 1);
+    }
+
     private int hashToIndex(int hash) {
-        return (hash & 0x7FFFFFFF) % this.capacity;
+        return hash & (this.capacity - 1); // The capacity is a power of 2, so masking the low bits is equivalent to "%", without a division, and is never negative
+    }
+
+    private int probe(int hash, int x) {
+        if (this.probing == Probing.LINEAR) {
+            return this.hashToIndex(hash + x);
+
+        } else {
+            return this.hashToIndex(hash + this.quadraticProbingFunction(x));
+        }
     }
 
     private int quadraticProbingFunction(int x) {
         return (x * x + x) / 2;
     }
 
+    // Returns the index of the key in the old arrays, or -1 if the key isn't there
+    private int oldIndex(K key, int hash) {
+        int mask = this.oldKeys.length - 1;
+
+        // Migrated entries are replaced with tombstones rather than "null", so the probe sequences of the old arrays stay intact, and even Robin Hood entries can be found by a linear scan
+        for (int x = 0; x <= mask; x++) {
+            int index;
+
+            if (this.probing == Probing.QUADRATIC) {
+                index = (hash + this.quadraticProbingFunction(x)) & mask;
+
+            } else {
+                index = (hash + x) & mask;
+            }
+
+            K entry = this.oldKeys[index];
+
+            if (entry == null) {
+                return -1;
+
+            } else if (this.oldHashes[index] == hash && entry != TOMBSTONE && (entry == key || entry.equals(key))) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private V removeOld(int index) {
+        V value = this.oldValues[index];
+        this.oldKeys[index] = TOMBSTONE;
+        this.oldValues[index] = null;
+        this.oldSize--;
+
+        if (this.oldSize == 0) {
+            this.finishMigration();
+        }
+
+        return value;
+    }
+
+    // Moves the entries of the next "count" old indices into the new arrays
+    private void migrate(int count) {
+        int end = Math.min(this.oldKeys.length, this.migrated + count);
+
+        for (; this.migrated < end; this.migrated++) {
+            K key = this.oldKeys[this.migrated];
+
+            if (key != null && key != TOMBSTONE) {
+                this.insert(key, this.oldHashes[this.migrated], this.oldValues[this.migrated]);
+                this.oldKeys[this.migrated] = TOMBSTONE;
+                this.oldValues[this.migrated] = null;
+                this.oldSize--;
+            }
+        }
+
+        if (this.migrated == this.oldKeys.length || this.oldSize == 0) {
+            this.finishMigration();
+        }
+    }
+
+    private void finishMigration() {
+        this.oldKeys = null;
+        this.oldValues = null;
+        this.oldHashes = null;
+        this.oldSize = 0;
+    }
+
+    // Called once the occupied entries reach the threshold, which doubles the capacity, unless enough of them are tombstones that removing them makes enough room
+    // Removing the tombstones reuses the same arrays, unless the resize is incremental, in which case it migrates into new arrays so that no single operation rehashes every entry
     private void resizeTable() {
-        this.capacity *= 2;
+        long start = this.recordStats ? System.nanoTime() : 0;
+
+        // Migration normally finishes before the next resize, but if it hasn't, then finish it now, since only one pair of old arrays is kept
+        if (this.isMigrating()) {
+            this.migrate(this.oldKeys.length);
+        }
+
+        if (this.tombstones > 0 && this.tombstones >= this.tombstoneFraction * (this.size + this.tombstones)) {
+            if (this.incremental) {
+                this.rehash(this.capacity, true);
+
+            } else {
+                this.rehashInPlace();
+            }
+
+        } else {
+            this.rehash(this.capacity * 2, this.incremental);
+        }
+
+        if (this.recordStats) {
+            this.resizes++;
+            this.resizeNanos += System.nanoTime() - start;
+        }
+    }
+
+    // Clears every tombstone, and moves each entry to the first entry of its probe sequence that's free, within the same arrays, so only a bit per entry is allocated
+    // Only linear and quadratic probing leave tombstones, and Robin Hood probing relies on an order along each probe sequence that this doesn't keep
+    private void rehashInPlace() {
+        BitSet pending = new BitSet(this.capacity); // The entries that haven't been moved to where they belong yet
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] == TOMBSTONE) {
+                this.keys[i] = null;
+
+            } else if (this.keys[i] != null) {
+                pending.set(i);
+            }
+        }
+
+        this.tombstones = 0;
+
+        for (int i = pending.nextSetBit(0); i != -1; i = pending.nextSetBit(i + 1)) {
+            // Every entry before the target in the probe sequence holds an entry that was already moved, so a lookup reaches the target before any empty entry
+            while (pending.get(i)) {
+                int hash = this.hashes[i];
+                int index = this.hashToIndex(hash);
+
+                for (int x = 1; this.keys[index] != null && !pending.get(index); x++) {
+                    index = this.probe(hash, x);
+                }
+
+                pending.clear(index);
+
+                if (index == i) {
+                    break;
+                }
+
+                K key = this.keys[index];
+                V value = this.values[index];
+                int residentHash = this.hashes[index];
+                this.keys[index] = this.keys[i];
+                this.values[index] = this.values[i];
+                this.hashes[index] = hash;
+
+                // If the target held another entry that hasn't been moved yet, then that entry takes this one's place, and is moved next
+                if (key == null) {
+                    this.keys[i] = null;
+                    this.values[i] = null;
+                    pending.clear(i);
+
+                } else {
+                    this.keys[i] = key;
+                    this.values[i] = value;
+                    this.hashes[i] = residentHash;
+                }
+            }
+        }
+    }
+
+    private void rehash(int capacity, boolean incremental) {
+        this.capacity = capacity;
         this.threshold = (int) (this.loadFactor * this.capacity);
 
         K[] oldKeys = this.keys;
@@ -209,13 +969,33 @@ class HashTableOpenAddressing<K, V> {
         V[] oldValues = this.values;
         this.values = (V[]) new Object[this.capacity];
 
+        int[] oldHashes = this.hashes;
+        this.hashes = new int[this.capacity];
+
+        int entries = this.size;
         this.tombstones = 0;
         this.size = 0;
 
+        // The old entries stay where they are, and later operations move them over
+        if (incremental) {
+            this.oldKeys = oldKeys;
+            this.oldValues = oldValues;
+            this.oldHashes = oldHashes;
+            this.oldSize = entries;
+            this.migrated = 0;
+
+            if (this.oldSize == 0) {
+                this.finishMigration();
+            }
+
+            return;
+        }
+
+        // Reuse the cached hashes rather than calling "hashCode" again
         for (int i = 0; i < oldKeys.length; i++) {
             if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) {
-                this.put(oldKeys[i], oldValues[i]);
+                this.insert(oldKeys[i], oldHashes[i], oldValues[i]);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
@@ -340,4 +343,620 @@ class HashTableOpenAddressingTest {
 
         Assertions.assertTrue(table.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void probingStrategiesRandomOperations() {
+        // The same key objects are reused, so that every strategy sees identical keys
+        Integer[] keys = new Integer[1000];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 16; // Multiples of the initial capacity share their home index, which forces long probe sequences
+        }
+
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            Random rng = new Random();
+            HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.9, probing);
+            HashMap<Integer, String> expected = new HashMap<>();
+
+            for (int i = 0; i < 20000; i++) {
+                Integer key = keys[rng.nextInt(keys.length)];
+
+                if (rng.nextInt(3) > 0) {
+                    table.put(key, i + "");
+                    expected.put(key, i + "");
+
+                } else {
+                    Assertions.assertEquals(expected.remove(key), table.remove(key));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), table.size());
+
+            for (Integer key : keys) {
+                Assertions.assertEquals(expected.containsKey(key), table.contains(key));
+                Assertions.assertEquals(expected.get(key), table.get(key));
+            }
+        }
+    }
+
+    @Test
+    void robinHoodRemoveAll() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.9, HashTableOpenAddressing.Probing.ROBIN_HOOD);
+
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i + "");
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i + "", table.remove(i));
+        }
+
+        Assertions.assertTrue(table.isEmpty());
+        Assertions.assertTrue(table.keys().isEmpty());
+    }
+
+    @Test
+    void equalButDistinctKeys() {
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            HashTableOpenAddressing<String, Integer> table = new HashTableOpenAddressing<>(16, 0.5, probing);
+
+            table.put(new String("key"), 1);
+            table.put(new String("key"), 2);
+
+            Assertions.assertEquals(1, table.size());
+            Assertions.assertTrue(table.contains(new String("key")));
+            Assertions.assertEquals(2, table.get(new String("key")));
+            Assertions.assertEquals(2, table.remove(new String("key")));
+            Assertions.assertTrue(table.isEmpty());
+        }
+    }
+
+    @Test
+    void equalButDistinctLargeIntegers() {
+        HashTableOpenAddressing<Long, String> table = new HashTableOpenAddressing<>();
+
+        // Values outside of the boxing cache are distinct objects every time they're boxed
+        for (long i = 1000; i < 2000; i++) {
+            table.put(i, i + "");
+            table.put(i, i + "");
+        }
+
+        Assertions.assertEquals(1000, table.size());
+
+        for (long i = 1000; i < 2000; i++) {
+            Assertions.assertEquals(i + "", table.get(i));
+        }
+    }
+
+    @Test
+    void incrementalResizeLookupsDuringMigration() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, HashTableOpenAddressing.Probing.QUADRATIC, true);
+        int added = 0;
+
+        // Fill until a resize leaves entries in the old arrays
+        while (!table.isMigrating()) {
+            table.put(added, added + "");
+            added++;
+        }
+
+        for (int i = 0; i < added; i++) {
+            Assertions.assertEquals(i + "", table.get(i));
+        }
+
+        Assertions.assertEquals(added, table.size());
+
+        // Every operation migrates a step of entries, so the migration finishes after a bounded amount of operations
+        for (int i = 0; i < 16 && table.isMigrating(); i++) {
+            table.contains(-1);
+        }
+
+        Assertions.assertFalse(table.isMigrating());
+        Assertions.assertEquals(added, table.size());
+        Assertions.assertEquals(added, table.keys().size());
+        Assertions.assertEquals(added, table.values().size());
+    }
+
+    @Test
+    void incrementalResizeRandomOperations() {
+        Integer[] keys = new Integer[1000];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 16;
+        }
+
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            for (double loadFactor : new double[]{0.05, 0.5, 0.9}) {
+                Random rng = new Random();
+                HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, loadFactor, probing, true);
+                HashMap<Integer, String> expected = new HashMap<>();
+
+                for (int i = 0; i < 20000; i++) {
+                    Integer key = keys[rng.nextInt(keys.length)];
+                    int operation = rng.nextInt(4);
+
+                    if (operation < 2) {
+                        table.put(key, i + "");
+                        expected.put(key, i + "");
+
+                    } else if (operation == 2) {
+                        Assertions.assertEquals(expected.remove(key), table.remove(key));
+
+                    } else {
+                        Assertions.assertEquals(expected.get(key), table.get(key));
+                    }
+
+                    Assertions.assertEquals(expected.size(), table.size());
+                }
+
+                for (Integer key : keys) {
+                    Assertions.assertEquals(expected.containsKey(key), table.contains(key));
+                    Assertions.assertEquals(expected.get(key), table.get(key));
+                }
+
+                Assertions.assertEquals(new HashSet<>(expected.keySet()), new HashSet<>(table.keys()));
+            }
+        }
+    }
+
+    @Test
+    void deleteHeavyChurnKeepsCapacity() {
+        for (boolean incremental : new boolean[]{false, true}) {
+            for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+                HashTableOpenAddressing<Integer, Integer> table = new HashTableOpenAddressing<>(16, 0.5, probing, incremental);
+
+                // The size stays flat, so tombstones must be rehashed away at the same capacity rather than doubling it
+                for (int i = 0; i < 100000; i++) {
+                    table.put(i, i);
+
+                    if (i >= 4) {
+                        Assertions.assertEquals(i - 4, table.remove(i - 4));
+                    }
+                }
+
+                Assertions.assertEquals(4, table.size());
+                Assertions.assertEquals(16, table.capacity());
+
+                for (int i = 99996; i < 100000; i++) {
+                    Assertions.assertEquals(i, table.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void inPlaceRehashRandomOperations() {
+        for (HashTableOpenAddressing.Probing probing : new HashTableOpenAddressing.Probing[]{HashTableOpenAddressing.Probing.LINEAR, HashTableOpenAddressing.Probing.QUADRATIC}) {
+            Random rng = new Random();
+            HashTableOpenAddressing<Integer, Integer> table = new HashTableOpenAddressing<>(64, 0.75, probing);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+
+            // Multiples of the capacity share their home index, so rehashing in place has to move entries past each other, and the size stays well below the threshold
+            for (int i = 0; i < 100000; i++) {
+                int key = rng.nextInt(24) * 64;
+
+                if (rng.nextBoolean()) {
+                    table.put(key, i);
+                    expected.put(key, i);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(key), table.remove(key));
+                }
+            }
+
+            Assertions.assertEquals(64, table.capacity());
+            Assertions.assertEquals(expected.size(), table.size());
+
+            for (int key = 0; key < 24 * 64; key += 64) {
+                Assertions.assertEquals(expected.get(key), table.get(key));
+            }
+
+            table.trimToSize();
+
+            for (int key = 0; key < 24 * 64; key += 64) {
+                Assertions.assertEquals(expected.get(key), table.get(key));
+            }
+        }
+    }
+
+    @Test
+    void trimToSize() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>();
+
+        for (int i = 0; i < 10000; i++) {
+            table.put(i, i + "");
+        }
+
+        for (int i = 10; i < 10000; i++) {
+            table.remove(i);
+        }
+
+        table.trimToSize();
+
+        Assertions.assertEquals(32, table.capacity());
+        Assertions.assertEquals(10, table.size());
+
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertEquals(i < 10 ? i + "" : null, table.get(i));
+        }
+
+        table.clear();
+        table.trimToSize();
+
+        Assertions.assertEquals(16, table.capacity());
+    }
+
+    @Test
+    void invalidTombstoneFraction() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashTableOpenAddressing<Integer, Integer>(16, 0.5, HashTableOpenAddressing.Probing.LINEAR, false, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashTableOpenAddressing<Integer, Integer>(16, 0.5, HashTableOpenAddressing.Probing.LINEAR, false, 1.5));
+    }
+
+    @Test
+    void getAll() {
+        for (boolean incremental : new boolean[]{false, true}) {
+            for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+                Random rng = new Random();
+                HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, probing, incremental);
+                Integer[] keys = new Integer[5000];
+                String[] out = new String[keys.length];
+
+                for (int i = 0; i < 1000; i++) {
+                    table.put(i * 16, i + "");
+                }
+
+                for (int i = 0; i < 1000; i += 3) {
+                    table.remove(i * 16);
+                }
+
+                // Duplicate keys make earlier lookups of the batch move entries that later lookups have already loaded
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = rng.nextInt(2000) * 16;
+                }
+
+                table.getAll(keys, out);
+
+                for (int i = 0; i < keys.length; i++) {
+                    Assertions.assertEquals(table.get(keys[i]), out[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void getAllInvalidArguments() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.getAll(new Integer[2], new String[1]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.getAll(new Integer[1], new String[1]));
+    }
+
+    @Test
+    void putAll() {
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, probing);
+            Integer[] keys = new Integer[1000];
+            String[] values = new String[keys.length];
+
+            table.put(0, "old");
+
+            // Every key appears twice, so the later value wins
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i % 500;
+                values[i] = i + "";
+            }
+
+            table.putAll(keys, values);
+
+            Assertions.assertEquals(500, table.size());
+
+            for (int i = 0; i < 500; i++) {
+                Assertions.assertEquals((i + 500) + "", table.get(i));
+            }
+        }
+
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.putAll(new Integer[1], new String[2]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.putAll(new Integer[1], new String[1]));
+    }
+
+    @Test
+    void putAllUpdatesKeepCapacity() {
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, probing);
+            Integer[] keys = new Integer[100000];
+            String[] values = new String[keys.length];
+
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i;
+                values[i] = i + "";
+            }
+
+            // An empty table grows straight to a capacity that holds the whole batch
+            table.putAll(keys, values);
+            int capacity = table.capacity();
+
+            Assertions.assertEquals(262144, capacity);
+
+            // Overwriting every existing key adds no entries, so it mustn't grow the table
+            table.putAll(keys, values.clone());
+
+            Assertions.assertEquals(capacity, table.capacity());
+            Assertions.assertEquals(keys.length, table.size());
+        }
+    }
+
+    @Test
+    void forEachAndCursor() {
+        for (boolean incremental : new boolean[]{false, true}) {
+            HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, HashTableOpenAddressing.Probing.QUADRATIC, incremental);
+            HashMap<Integer, String> expected = new HashMap<>();
+
+            // Stop right after a resize, so that an incremental table still has entries in its old arrays
+            for (int i = 0; i < 100 || (incremental && !table.isMigrating()); i++) {
+                table.put(i, i + "");
+                expected.put(i, i + "");
+            }
+
+            Assertions.assertEquals(incremental, table.isMigrating());
+
+            HashMap<Integer, String> visited = new HashMap<>();
+            table.forEach(visited::put);
+
+            Assertions.assertEquals(expected, visited);
+
+            HashTableOpenAddressing<Integer, String>.EntryCursor cursor = table.cursor();
+
+            // The same cursor is reused after a reset
+            for (int pass = 0; pass < 2; pass++) {
+                visited.clear();
+
+                while (cursor.next()) {
+                    Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+                }
+
+                Assertions.assertEquals(expected, visited);
+                Assertions.assertThrows(NoSuchElementException.class, cursor::key);
+                cursor.reset();
+            }
+        }
+    }
+
+    @Test
+    void lookupsWhileIteratingMigratingTable() {
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            // Lookups only start after some entries, so that some iterations reach the old arrays of the migration before the lookups finish it
+            for (int quiet : new int[]{0, 100, 200, 400, 800}) {
+                for (boolean cursor : new boolean[]{false, true}) {
+                    HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, probing, true, 0.5, HashStrategy.MURMUR3);
+                    HashMap<Integer, String> expected = new HashMap<>();
+                    int added = 0;
+
+                    // Removals leave tombstones, which quadratic probing lookups would otherwise move entries into
+                    while (added < 1000 || !table.isMigrating()) {
+                        table.put(added, added + "");
+                        expected.put(added, added + "");
+
+                        if (added % 3 == 0) {
+                            table.remove(added / 2);
+                            expected.remove(added / 2);
+                        }
+
+                        added++;
+                    }
+
+                    HashMap<Integer, String> visited = new HashMap<>();
+                    int[] lookups = new int[1];
+                    int keys = added;
+
+                    if (!cursor) {
+                        table.forEach((key, value) -> {
+                            if (visited.size() >= quiet) {
+                                Assertions.assertEquals(value, table.get(key));
+                                Assertions.assertEquals(expected.get(lookups[0] % keys), table.get(lookups[0]++ % keys));
+                            }
+
+                            Assertions.assertNull(visited.put(key, value));
+                        });
+
+                    } else {
+                        HashTableOpenAddressing<Integer, String>.EntryCursor entries = table.cursor();
+
+                        while (entries.next()) {
+                            if (visited.size() >= quiet) {
+                                Assertions.assertTrue(table.contains(entries.key()));
+                                Assertions.assertEquals(expected.containsKey(lookups[0] % keys), table.contains(lookups[0]++ % keys));
+                            }
+
+                            Assertions.assertNull(visited.put(entries.key(), entries.value()));
+                        }
+                    }
+
+                    Assertions.assertEquals(expected, visited);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cursorOnEmptyTable() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>();
+        HashTableOpenAddressing<Integer, String>.EntryCursor cursor = table.cursor();
+
+        Assertions.assertThrows(NoSuchElementException.class, cursor::value);
+        Assertions.assertFalse(cursor.next());
+    }
+
+    @Test
+    void hashStrategies() {
+        // Keys that only differ above the low bits share their home index unless the strategy mixes the bits down
+        Integer[] keys = new Integer[1000];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i << 16;
+        }
+
+        for (HashStrategy strategy : List.of(HashStrategy.MURMUR3, HashStrategy.seeded())) {
+            for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+                for (boolean incremental : new boolean[]{false, true}) {
+                    Random rng = new Random();
+                    HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.75, probing, incremental, 0.5, strategy);
+                    HashMap<Integer, String> expected = new HashMap<>();
+
+                    for (int i = 0; i < 20000; i++) {
+                        Integer key = keys[rng.nextInt(keys.length)];
+
+                        if (rng.nextInt(3) > 0) {
+                            table.put(key, i + "");
+                            expected.put(key, i + "");
+
+                        } else {
+                            Assertions.assertEquals(expected.remove(key), table.remove(key));
+                        }
+                    }
+
+                    Assertions.assertEquals(expected.size(), table.size());
+
+                    String[] values = new String[keys.length];
+                    table.getAll(keys, values);
+
+                    for (int i = 0; i < keys.length; i++) {
+                        Assertions.assertEquals(expected.get(keys[i]), values[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidHashStrategy() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashTableOpenAddressing<>(16, 0.5, HashTableOpenAddressing.Probing.LINEAR, false, 0.5, null));
+    }
+
+    @Test
+    void statsDisabledByDefault() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>();
+        table.put(1, "1");
+
+        Assertions.assertFalse(table.isRecordingStats());
+        Assertions.assertNull(table.stats());
+
+        table.recordStats(true);
+        table.get(1);
+
+        Assertions.assertTrue(table.isRecordingStats());
+        Assertions.assertEquals(1, table.stats().probes());
+
+        table.recordStats(false);
+
+        Assertions.assertNull(table.stats());
+    }
+
+    @Test
+    void stats() {
+        for (HashTableOpenAddressing.Probing probing : HashTableOpenAddressing.Probing.values()) {
+            HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(16, 0.5, probing);
+            table.recordStats(true);
+
+            // Sequential keys each sit at their home index
+            for (int i = 0; i < 7; i++) {
+                table.put(i, i + "");
+            }
+
+            HashTableOpenAddressing.Stats stats = table.stats();
+
+            Assertions.assertEquals(7, stats.probes());
+            Assertions.assertEquals(7, stats.probeLengths()[0]);
+            Assertions.assertEquals(0, stats.maxProbeLength());
+            Assertions.assertEquals(0, stats.averageProbeLength());
+            Assertions.assertEquals(0, stats.resizes());
+            Assertions.assertEquals(7, stats.size());
+            Assertions.assertEquals(16, stats.capacity());
+
+            // Multiples of the capacity share their home index, so each one probes past all of the previous ones
+            table.resetStats();
+
+            for (int i = 1; i <= 7; i++) {
+                table.put(i * 64, i + "");
+            }
+
+            stats = table.stats();
+
+            Assertions.assertTrue(stats.maxProbeLength() > 0);
+            Assertions.assertTrue(stats.averageProbeLength() > 0);
+            Assertions.assertTrue(stats.resizes() > 0);
+            Assertions.assertTrue(stats.resizeNanos() >= 0);
+            Assertions.assertEquals(Arrays.stream(stats.probeLengths()).sum(), stats.probes());
+            Assertions.assertEquals(14, stats.size());
+        }
+    }
+
+    @Test
+    void statsGetAll() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(64, 0.5, HashTableOpenAddressing.Probing.QUADRATIC);
+        table.recordStats(true);
+        Integer[] keys = new Integer[20];
+        String[] values = new String[keys.length];
+
+        for (int i = 0; i < 10; i++) {
+            table.put(i, i + "");
+        }
+
+        // Every key is either at its home index, or its home index is empty
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+
+        table.resetStats();
+        table.getAll(keys, values);
+
+        HashTableOpenAddressing.Stats stats = table.stats();
+
+        Assertions.assertEquals(20, stats.probes());
+        Assertions.assertEquals(20, stats.probeLengths()[0]);
+        Assertions.assertEquals(0, stats.averageProbeLength());
+    }
+
+    @Test
+    void statsTombstones() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(64, 0.5, HashTableOpenAddressing.Probing.LINEAR);
+        table.recordStats(true);
+
+        for (int i = 0; i < 16; i++) {
+            table.put(i, i + "");
+        }
+
+        for (int i = 0; i < 8; i++) {
+            table.remove(i);
+        }
+
+        HashTableOpenAddressing.Stats stats = table.stats();
+
+        Assertions.assertEquals(8, stats.tombstones());
+        Assertions.assertEquals(8.0 / 64, stats.tombstoneRatio());
+
+        // The snapshot doesn't change along with the hash table
+        table.remove(8);
+
+        Assertions.assertEquals(8, stats.tombstones());
+        Assertions.assertEquals(9, table.stats().tombstones());
+    }
+
+    @Test
+    void statsLongProbeSequences() {
+        HashTableOpenAddressing<Integer, String> table = new HashTableOpenAddressing<>(1024, 0.9, HashTableOpenAddressing.Probing.LINEAR);
+        table.recordStats(true);
+
+        // Every key has the same home index, so the probe sequences grow past the last counted length
+        for (int i = 0; i < 100; i++) {
+            table.put(i * 1024, i + "");
+        }
+
+        HashTableOpenAddressing.Stats stats = table.stats();
+        long[] probeLengths = stats.probeLengths();
+
+        Assertions.assertTrue(stats.maxProbeLength() >= 99);
+        Assertions.assertTrue(probeLengths[probeLengths.length - 1] > 0);
+        Assertions.assertEquals(0, stats.resizes());
+    }
+}
@@ -1,7 +1,10 @@
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
 // Separate chaining via linked lists
 class HashTableSeparateChaining<K, V> {
@@ -10,22 +13,88 @@ class HashTableSeparateChaining<K, V> {
         V value;
         int hash;
 
-        Node(K key, V value) {
+        Node(K key, V value, int hash) {
             super();
             this.key = key;
             this.value = value;
-            this.hash = key.hashCode();
+            this.hash = hash;
+        }
+    }
+
+    // Iterates the entries in place, in no particular order, and can be reset and reused, so that repeated iterations only allocate for buckets that hold more than one entry
+    // The hash table must not be modified while a cursor is in use
+    class EntryCursor {
+        private int bucket; // The index of the current bucket, or -1 before the first call to "next"
+        private Iterator<Node> rest; // The rest of the entries of the current bucket, or null if there are none
+        private Node current;
+
+        EntryCursor() {
+            super();
+            this.reset();
+        }
+
+        // Moves to the next entry, and returns false if there are no more entries
+        boolean next() {
+            if (this.rest != null && this.rest.hasNext()) {
+                this.current = this.rest.next();
+                return true;
+            }
+
+            this.rest = null;
+
+            // Most buckets hold a single entry, which is read without an iterator, and a longer bucket is iterated rather than indexed, since indexing a linked list walks it from the start every time
+            for (this.bucket++; this.bucket < capacity; this.bucket++) {
+                LinkedList<Node> entries = table[this.bucket];
+
+                if (entries != null) {
+                    this.current = entries.getFirst();
+
+                    if (entries.size() > 1) {
+                        this.rest = entries.listIterator(1);
+                    }
+
+                    return true;
+                }
+            }
+
+            this.current = null;
+            return false;
+        }
+
+        K key() {
+            this.checkEntry();
+            return this.current.key;
+        }
+
+        V value() {
+            this.checkEntry();
+            return this.current.value;
+        }
+
+        // Moves back to before the first entry
+        void reset() {
+            this.bucket = -1;
+            this.rest = null;
+            this.current = null;
+        }
+
+        private void checkEntry() {
+            if (this.current == null) {
+                throw new NoSuchElementException();
+            }
         }
     }
 
     private static final int DEFAULT_CAPACITY = 16;
     private static final double DEFAULT_LOADFACTOR = 0.75;
+    private static final int BATCH_SIZE = 64; // The amount of keys of a batch operation whose hashes and buckets are loaded together
 
     private int size; // The amount of elements in the hash table
     private int capacity; // The max amount of elements that can be in the hash table
     private double loadFactor; // The percentage of the hash table that can store elements before needing to resize the table
     private int threshold; // The amount of elements that can be stored in the hash table before needing to resize the table
     private LinkedList<Node>[] table;
+    private HashStrategy hashStrategy; // Turns the hash codes of the keys into the hashes that the table is indexed with
 
     HashTableSeparateChaining() {
         this(DEFAULT_CAPACITY, DEFAULT_LOADFACTOR);
@@ -36,8 +105,16 @@ class HashTableSeparateChaining<K, V> {
     }
 
     HashTableSeparateChaining(int capacity, double loadFactor) {
+        this(capacity, loadFactor, HashStrategy.IDENTITY);
+    }
+
+    HashTableSeparateChaining(int capacity, double loadFactor, HashStrategy hashStrategy) {
         super();
 
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("The hash strategy must not be null");
+        }
+
         if (capacity <= 0) {
             throw new IllegalArgumentException("The capacity must be greater than 0");
         }
@@ -51,6 +128,7 @@ class HashTableSeparateChaining<K, V> {
         this.loadFactor = loadFactor;
         this.threshold = (int) (this.capacity * this.loadFactor);
         this.table = new LinkedList[this.capacity];
+        this.hashStrategy = hashStrategy;
     }
 
     int size() {
@@ -61,6 +139,10 @@ class HashTableSeparateChaining<K, V> {
         return this.size == 0;
     }
 
+    int capacity() {
+        return this.capacity;
+    }
+
     void clear() {
         Arrays.fill(this.table, null);
         this.size = 0;
@@ -113,68 +195,149 @@ class HashTableSeparateChaining<K, V> {
             throw new IllegalArgumentException("The key must not be null");
         }
 
-        if (this.size >= this.threshold) { // Perform this first in order to prevent redundant computation with the old table
-            this.resizeTable();
+        this.put(key, this.hashStrategy.hash(key), value);
+    }
+
+    // Looks up each key, and stores its value at the same index of "out", or null if the key doesn't exist
+    // The hashes of a batch are computed first, and then their buckets are loaded, and since neither depends on the previous key, the cache misses of the batch overlap rather than happening one after another
+    void getAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("The output array must be at least as long as the keys");
         }
 
-        Node existentElement = this.getNode(key);
+        int[] hashes = new int[Math.min(keys.length, BATCH_SIZE)];
+        LinkedList<Node>[] buckets = new LinkedList[hashes.length];
 
-        if (existentElement == null) {
-            Node element = new Node(key, value);
-            int index = this.hashToIndex(element.hash);
-            LinkedList<Node> bucket = this.table[index];
-    
-            if (bucket == null) {
-                bucket = new LinkedList<>();
-                this.table[index] = bucket;
+        for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, keys.length);
+
+            for (int i = start; i < end; i++) {
+                hashes[i - start] = keys[i] == null ? 0 : this.hashStrategy.hash(keys[i]);
             }
-            
-            bucket.add(element);
-            this.size++;
 
-        } else {
-            existentElement.value = value;
+            for (int i = 0; i < end - start; i++) {
+                buckets[i] = this.table[this.hashToIndex(hashes[i])];
+            }
+
+            for (int i = start; i < end; i++) {
+                Node element = keys[i] == null ? null : this.findNode(buckets[i - start], keys[i], hashes[i - start]);
+                out[i] = element == null ? null : element.value;
+            }
         }
     }
 
-    List<K> keys() {
-        ArrayList<K> keys = new ArrayList<>();
+    // Puts each key with the value at the same index, in order, so a later duplicate key overwrites an earlier one
+    void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("The keys and the values must have the same length");
+        }
 
-        for (LinkedList<Node> bucket : this.table) {
-            if (bucket != null) {
-                for (Node element : bucket) {
-                    keys.add(element.key);
-                }
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("The keys must not be null");
             }
         }
 
+        // Grow once for the whole batch, rather than doubling several times along the way
+        // The batch may only update existing keys, so it's only assumed to end up with as many entries as the larger of the table and the batch, and "put" grows the table further if that's too few
+        int entries = Math.max(this.size, keys.length);
+        int capacity = this.capacity;
+
+        while (entries > (int) (capacity * this.loadFactor)) {
+            capacity *= 2;
+        }
+
+        if (capacity > this.capacity) {
+            this.resizeTable(capacity);
+        }
+
+        int[] hashes = new int[Math.min(keys.length, BATCH_SIZE)];
+
+        for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, keys.length);
+
+            for (int i = start; i < end; i++) {
+                hashes[i - start] = this.hashStrategy.hash(keys[i]);
+            }
+
+            for (int i = start; i < end; i++) {
+                this.put(keys[i], hashes[i - start], values[i]);
+            }
+        }
+    }
+
+    // Returns a copy of the keys, which allocates a new list on every call, unlike "forEach" and "cursor"
+    List<K> keys() {
+        ArrayList<K> keys = new ArrayList<>(this.size);
+        this.forEach((key, value) -> keys.add(key));
+
         return keys;
     }
 
+    // Returns a copy of the values, which allocates a new list on every call, unlike "forEach" and "cursor"
     List<V> values() {
-        ArrayList<V> values = new ArrayList<>();
+        ArrayList<V> values = new ArrayList<>(this.size);
+        this.forEach((key, value) -> values.add(value));
 
+        return values;
+    }
+
+    // Performs the action on each entry, in no particular order, without copying the entries
+    void forEach(BiConsumer<? super K, ? super V> action) {
         for (LinkedList<Node> bucket : this.table) {
             if (bucket != null) {
                 for (Node element : bucket) {
-                    values.add(element.value);
+                    action.accept(element.key, element.value);
                 }
             }
         }
+    }
 
-        return values;
+    EntryCursor cursor() {
+        return new EntryCursor();
     }
 
-    private Node getNode(K key) {
-        if (key != null) {
-            int index = this.hashToIndex(key.hashCode());
+    private void put(K key, int hash, V value) {
+        if (this.size >= this.threshold) { // Perform this first in order to prevent redundant computation with the old table
+            this.resizeTable();
+        }
+
+        Node existentElement = this.findNode(this.table[this.hashToIndex(hash)], key, hash);
+
+        if (existentElement == null) {
+            Node element = new Node(key, value, hash);
+            int index = this.hashToIndex(element.hash);
             LinkedList<Node> bucket = this.table[index];
     
-            if (bucket != null) {
-                for (Node element : bucket) {
-                    if (element.key.equals(key)) {
-                        return element;
-                    }
+            if (bucket == null) {
+                bucket = new LinkedList<>();
+                this.table[index] = bucket;
+            }
+            
+            bucket.add(element);
+            this.size++;
+
+        } else {
+            existentElement.value = value;
+        }
+    }
+
+    private Node getNode(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        int hash = this.hashStrategy.hash(key);
+
+        return this.findNode(this.table[this.hashToIndex(hash)], key, hash);
+    }
+
+    // Comparing the cached hashes first avoids most calls to "equals"
+    private Node findNode(LinkedList<Node> bucket, K key, int hash) {
+        if (bucket != null) {
+            for (Node element : bucket) {
+                if (element.hash == hash && element.key.equals(key)) {
+                    return element;
                 }
             }
         }
@@ -187,7 +350,11 @@ class HashTableSeparateChaining<K, V> {
     }
 
     private void resizeTable() {
-        this.capacity *= 2;
+        this.resizeTable(this.capacity * 2);
+    }
+
+    private void resizeTable(int capacity) {
+        this.capacity = capacity;
         this.threshold = (int) (this.capacity * this.loadFactor);
         LinkedList<Node>[] newTable = new LinkedList[this.capacity];
 
@@ -1,5 +1,7 @@
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
@@ -403,4 +405,175 @@ class HashTableSeparateChainingTest {
 
         Assertions.assertTrue(table.isEmpty());
     }
+
+    @Test
+    void getAll() {
+        HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>();
+
+        for (int i = 0; i < 1000; i++) {
+            table.put(i * 16, i + ""); // Multiples of the initial capacity collide until the table grows
+        }
+
+        Integer[] keys = new Integer[2000];
+        String[] out = new String[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 16;
+        }
+
+        keys[5] = null;
+        table.getAll(keys, out);
+
+        for (int i = 0; i < keys.length; i++) {
+            Assertions.assertEquals(keys[i] == null ? null : table.get(keys[i]), out[i]);
+        }
+
+        Assertions.assertNull(out[1500]);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.getAll(keys, new String[1]));
+    }
+
+    @Test
+    void putAll() {
+        HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>();
+        Integer[] keys = new Integer[1000];
+        String[] values = new String[keys.length];
+
+        table.put(0, "old");
+
+        // Every key appears twice, so the later value wins
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i % 500;
+            values[i] = i + "";
+        }
+
+        table.putAll(keys, values);
+
+        Assertions.assertEquals(500, table.size());
+
+        for (int i = 0; i < 500; i++) {
+            Assertions.assertEquals((i + 500) + "", table.get(i));
+        }
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.putAll(new Integer[1], new String[2]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.putAll(new Integer[1], new String[1]));
+    }
+
+    @Test
+    void putAllUpdatesKeepCapacity() {
+        HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>();
+        Integer[] keys = new Integer[100000];
+        String[] values = new String[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+            values[i] = i + "";
+        }
+
+        table.putAll(keys, values);
+        int capacity = table.capacity();
+
+        Assertions.assertTrue(capacity * 0.75 >= keys.length);
+
+        // Overwriting every existing key adds no entries, so it mustn't grow the table
+        table.putAll(keys, values.clone());
+
+        Assertions.assertEquals(capacity, table.capacity());
+        Assertions.assertEquals(keys.length, table.size());
+    }
+
+    @Test
+    void forEachAndCursor() {
+        HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>();
+        HashMap<Integer, String> expected = new HashMap<>();
+
+        // Multiples of the initial capacity fill a few long buckets before the table grows
+        for (int i = 0; i < 100; i++) {
+            table.put(i * 16, i + "");
+            expected.put(i * 16, i + "");
+        }
+
+        HashMap<Integer, String> visited = new HashMap<>();
+        table.forEach(visited::put);
+
+        Assertions.assertEquals(expected, visited);
+
+        HashTableSeparateChaining<Integer, String>.EntryCursor cursor = table.cursor();
+
+        // The same cursor is reused after a reset
+        for (int pass = 0; pass < 2; pass++) {
+            visited.clear();
+
+            while (cursor.next()) {
+                Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+            }
+
+            Assertions.assertEquals(expected, visited);
+            Assertions.assertThrows(NoSuchElementException.class, cursor::key);
+            cursor.reset();
+        }
+    }
+
+    @Test
+    void cursorOverLongBucket() {
+        HashTableSeparateChaining<Integer, Integer> table = new HashTableSeparateChaining<>(16, 100000);
+        HashTableSeparateChaining<Integer, Integer>.EntryCursor cursor = table.cursor();
+        HashMap<Integer, Integer> visited = new HashMap<>();
+
+        // Multiples of the capacity all share a bucket, and the load factor keeps the table from resizing
+        for (int i = 0; i < 20000; i++) {
+            table.put(i << 16, i);
+        }
+
+        table.put(1, -1);
+
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+
+        Assertions.assertEquals(20001, visited.size());
+        Assertions.assertEquals(-1, visited.get(1));
+        Assertions.assertEquals(19999, visited.get(19999 << 16));
+    }
+
+    @Test
+    void cursorOnEmptyTable() {
+        HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>();
+        HashTableSeparateChaining<Integer, String>.EntryCursor cursor = table.cursor();
+
+        Assertions.assertThrows(NoSuchElementException.class, cursor::value);
+        Assertions.assertFalse(cursor.next());
+    }
+
+    @Test
+    void hashStrategies() {
+        for (HashStrategy strategy : List.of(HashStrategy.MURMUR3, HashStrategy.seeded())) {
+            Random rng = new Random();
+            HashTableSeparateChaining<Integer, String> table = new HashTableSeparateChaining<>(16, 0.75, strategy);
+            HashMap<Integer, String> expected = new HashMap<>();
+
+            // Keys that only differ above the low bits share their bucket unless the strategy mixes the bits down
+            for (int i = 0; i < 20000; i++) {
+                int key = rng.nextInt(1000) << 16;
+
+                if (rng.nextInt(3) > 0) {
+                    table.put(key, i + "");
+                    expected.put(key, i + "");
+
+                } else {
+                    Assertions.assertEquals(expected.remove(key), table.remove(key));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), table.size());
+
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertEquals(expected.get(i << 16), table.get(i << 16));
+            }
+        }
+    }
+
+    @Test
+    void invalidHashStrategy() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashTableSeparateChaining<>(16, 0.75, null));
+    }
 }
\ No newline at end of file
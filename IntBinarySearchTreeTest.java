@@ -0,0 +1,56 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IntBinarySearchTreeTest {
+    @Test
+    void containsAddedElement() {
+        IntBinarySearchTree bst = new IntBinarySearchTree();
+
+        bst.add(Integer.MAX_VALUE);
+        bst.add(Integer.MIN_VALUE);
+
+        Assertions.assertTrue(bst.contains(Integer.MAX_VALUE));
+        Assertions.assertTrue(bst.contains(Integer.MIN_VALUE));
+        Assertions.assertFalse(bst.contains(0));
+    }
+
+    @Test
+    void remove() {
+        IntBinarySearchTree bst = new IntBinarySearchTree();
+
+        bst.add(7);
+        bst.add(3);
+        bst.add(10);
+
+        Assertions.assertTrue(bst.remove(7));
+        Assertions.assertFalse(bst.remove(7));
+        Assertions.assertEquals("[3, 10]", bst.toStringArray());
+    }
+
+    @Test
+    void randomOperations() {
+        for (boolean balanced : new boolean[]{false, true}) {
+            Random rng = new Random();
+            IntBinarySearchTree bst = new IntBinarySearchTree(balanced);
+            TreeSet<Integer> expected = new TreeSet<>();
+
+            for (int i = 0; i < 10000; i++) {
+                int element = rng.nextInt(1000);
+
+                if (rng.nextBoolean()) {
+                    bst.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), bst.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), bst.size());
+            Assertions.assertEquals(expected.toString(), bst.toStringArray());
+        }
+    }
+}
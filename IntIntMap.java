@@ -0,0 +1,260 @@
+import java.util.Arrays;
+
+// Open addressing from "int" keys to "int" values, stored in primitive arrays, so entries take 8 bytes of array rather than boxed keys and values
+// An entry whose key is 0 is empty, so the key 0 itself is kept outside the arrays, and removals shift the following entries back rather than leaving tombstones
+class IntIntMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double DEFAULT_LOADFACTOR = 0.75; // Higher than the other hash tables, since a probe only compares primitives in consecutive entries
+
+    private int size;
+    private int capacity;
+    private double loadFactor;
+    private int threshold;
+    private int[] keys;
+    private int[] values;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    IntIntMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOADFACTOR);
+    }
+
+    IntIntMap(int capacity) {
+        this(capacity, DEFAULT_LOADFACTOR);
+    }
+
+    IntIntMap(int capacity, double loadFactor) {
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1 || Double.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("The load factor must be greater than 0, and less than 1");
+        }
+
+        this.size = 0;
+        this.capacity = Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+        this.loadFactor = loadFactor;
+        this.threshold = (int) (this.capacity * this.loadFactor);
+        this.keys = new int[this.capacity];
+        this.values = new int[this.capacity];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.values, 0);
+        this.hasZeroKey = false;
+        this.zeroValue = 0;
+        this.size = 0;
+    }
+
+    boolean contains(int key) {
+        if (key == 0) {
+            return this.hasZeroKey;
+        }
+
+        return this.keys[this.indexOf(key)] == key;
+    }
+
+    // Returns 0 if the key doesn't exist
+    int get(int key) {
+        return this.getOrDefault(key, 0);
+    }
+
+    int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return this.hasZeroKey ? this.zeroValue : defaultValue;
+        }
+
+        int index = this.indexOf(key);
+
+        return this.keys[index] == key ? this.values[index] : defaultValue;
+    }
+
+    void put(int key, int value) {
+        if (key == 0) {
+            this.putZeroKey(value);
+            return;
+        }
+
+        int index = this.indexOf(key);
+
+        if (this.keys[index] == key) {
+            this.values[index] = value;
+
+        } else {
+            this.insert(index, key, value);
+        }
+    }
+
+    // Adds the delta to the value of the key, treating a missing key as 0, and returns the new value
+    int addTo(int key, int delta) {
+        if (key == 0) {
+            int value = (this.hasZeroKey ? this.zeroValue : 0) + delta;
+            this.putZeroKey(value);
+
+            return value;
+        }
+
+        int index = this.indexOf(key);
+
+        if (this.keys[index] == key) {
+            this.values[index] += delta;
+
+            return this.values[index];
+        }
+
+        this.insert(index, key, delta);
+
+        return delta;
+    }
+
+    boolean remove(int key) {
+        if (key == 0) {
+            if (!this.hasZeroKey) {
+                return false;
+            }
+
+            this.hasZeroKey = false;
+            this.zeroValue = 0;
+            this.size--;
+
+            return true;
+        }
+
+        int index = this.indexOf(key);
+
+        if (this.keys[index] != key) {
+            return false;
+        }
+
+        this.shiftBack(index);
+        this.size--;
+
+        return true;
+    }
+
+    // Returns the keys in no particular order
+    int[] keys() {
+        int[] keys = new int[this.size];
+        int count = 0;
+
+        if (this.hasZeroKey) {
+            keys[count++] = 0;
+        }
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] != 0) {
+                keys[count++] = this.keys[i];
+            }
+        }
+
+        return keys;
+    }
+
+    // Returns the values in the same order as "keys"
+    int[] values() {
+        int[] values = new int[this.size];
+        int count = 0;
+
+        if (this.hasZeroKey) {
+            values[count++] = this.zeroValue;
+        }
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] != 0) {
+                values[count++] = this.values[i];
+            }
+        }
+
+        return values;
+    }
+
+    private void putZeroKey(int value) {
+        if (!this.hasZeroKey) {
+            this.hasZeroKey = true;
+            this.size++;
+        }
+
+        this.zeroValue = value;
+    }
+
+    // Fills the empty entry at the index, which was returned by "indexOf" for the key
+    private void insert(int index, int key, int value) {
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.size++;
+
+        if (this.size >= this.threshold) {
+            this.resizeTable();
+        }
+    }
+
+    // Returns the index of the key, or of the empty entry that ends its probe sequence
+    private int indexOf(int key) {
+        int mask = this.capacity - 1;
+        int index = hash(key) & mask;
+
+        while (this.keys[index] != 0 && this.keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    // Empties the entry, moving back each following entry whose home index isn't between the gap and itself, so that no probe sequence is broken
+    private void shiftBack(int gap) {
+        int mask = this.capacity - 1;
+        int next = (gap + 1) & mask;
+
+        while (this.keys[next] != 0) {
+            int home = hash(this.keys[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                this.keys[gap] = this.keys[next];
+                this.values[gap] = this.values[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        this.keys[gap] = 0;
+        this.values[gap] = 0;
+    }
+
+    private void resizeTable() {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+
+        this.capacity *= 2;
+        this.threshold = (int) (this.capacity * this.loadFactor);
+        this.keys = new int[this.capacity];
+        this.values = new int[this.capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = this.indexOf(oldKeys[i]);
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Multiplies by the golden ratio and folds the high bits down, since linear probing degrades badly on keys that only differ in their high bits
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IntIntMapTest {
+    @Test
+    void sizeDefault() {
+        IntIntMap map = new IntIntMap();
+
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void putAndGet() {
+        IntIntMap map = new IntIntMap();
+
+        map.put(1, 10);
+        map.put(1, 20);
+        map.put(-5, 30);
+
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(20, map.get(1));
+        Assertions.assertEquals(30, map.get(-5));
+        Assertions.assertEquals(0, map.get(2));
+        Assertions.assertEquals(-1, map.getOrDefault(2, -1));
+        Assertions.assertFalse(map.contains(2));
+    }
+
+    @Test
+    void zeroKey() {
+        IntIntMap map = new IntIntMap();
+
+        Assertions.assertFalse(map.contains(0));
+        Assertions.assertEquals(-1, map.getOrDefault(0, -1));
+
+        map.put(0, 7);
+
+        Assertions.assertTrue(map.contains(0));
+        Assertions.assertEquals(7, map.get(0));
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertArrayEquals(new int[]{0}, map.keys());
+
+        Assertions.assertTrue(map.remove(0));
+        Assertions.assertFalse(map.remove(0));
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void addTo() {
+        IntIntMap map = new IntIntMap();
+
+        Assertions.assertEquals(5, map.addTo(3, 5));
+        Assertions.assertEquals(8, map.addTo(3, 3));
+        Assertions.assertEquals(-2, map.addTo(0, -2));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(8, map.get(3));
+    }
+
+    @Test
+    void keysOnlyDifferingInHighBits() {
+        IntIntMap map = new IntIntMap();
+
+        for (int i = 1; i <= 1000; i++) {
+            map.put(i << 20, i);
+        }
+
+        for (int i = 1; i <= 1000; i++) {
+            Assertions.assertEquals(i, map.get(i << 20));
+        }
+
+        Assertions.assertEquals(1000, map.size());
+    }
+
+    @Test
+    void clear() {
+        IntIntMap map = new IntIntMap();
+
+        map.put(0, 1);
+        map.put(1, 1);
+        map.clear();
+
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertFalse(map.contains(0));
+        Assertions.assertFalse(map.contains(1));
+    }
+
+    @Test
+    void randomOperations() {
+        Random rng = new Random();
+        IntIntMap map = new IntIntMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+
+        // A small range of keys makes removals shift long runs of entries back
+        for (int i = 0; i < 100000; i++) {
+            int key = rng.nextInt(2000) - 1000;
+            int operation = rng.nextInt(3);
+
+            if (operation == 0) {
+                map.put(key, i);
+                expected.put(key, i);
+
+            } else if (operation == 1) {
+                map.addTo(key, i);
+                expected.merge(key, i, Integer::sum);
+
+            } else {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+
+        for (int key = -1000; key < 1000; key++) {
+            Assertions.assertEquals(expected.containsKey(key), map.contains(key));
+            Assertions.assertEquals(expected.getOrDefault(key, 0), map.get(key));
+        }
+
+        int[] keys = map.keys();
+        int[] values = map.values();
+
+        for (int i = 0; i < keys.length; i++) {
+            Assertions.assertEquals(expected.get(keys[i]), values[i]);
+        }
+    }
+}
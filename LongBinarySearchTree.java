@@ -0,0 +1,493 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// An array-backed binary search tree of primitive "long" elements, which are never boxed, and are compared inline
+class LongBinarySearchTree {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NIL = -1; // Represents the absence of a node
+
+    private int size;
+    private int root;
+    private boolean balanced; // Whether or not the tree rebalances itself as an AVL tree, which bounds its height to about 1.44 * log2(n)
+    private boolean modified; // Whether or not the last recursive insertion or removal changed the tree
+    private long[] items;
+    private int[] left;
+    private int[] right;
+    private byte[] height; // Only allocated and maintained when the tree is balanced, where it's at most about 1.44 * 31, so a plain tree doesn't pay for it
+    private int allocated; // The amount of nodes that have been taken from the end of the arrays
+    private int free; // The first node of the list of removed nodes, which are linked through "left" so that they can be reused
+
+    LongBinarySearchTree() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    LongBinarySearchTree(boolean balanced) {
+        this(DEFAULT_CAPACITY, balanced);
+    }
+
+    LongBinarySearchTree(int capacity, boolean balanced) {
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+
+        this.size = 0;
+        this.root = NIL;
+        this.balanced = balanced;
+        this.items = new long[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+
+        if (balanced) {
+            this.height = new byte[capacity];
+        }
+
+        this.allocated = 0;
+        this.free = NIL;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    boolean isBalanced() {
+        return this.balanced;
+    }
+
+    void clear() {
+        this.root = NIL;
+        this.size = 0;
+        this.allocated = 0;
+        this.free = NIL;
+    }
+
+    boolean contains(long element) {
+        int current = this.root;
+
+        while (current != NIL) {
+            int comparison = Long.compare(element, this.items[current]);
+
+            if (comparison == 0) {
+                return true;
+
+            } else if (comparison < 0) {
+                current = this.left[current];
+
+            } else {
+                current = this.right[current];
+            }
+        }
+
+        return false;
+    }
+
+    int height() {
+        if (this.balanced) {
+            return this.nodeHeight(this.root);
+
+        } else {
+            return this.height(this.root);
+        }
+    }
+
+    void add(long element) {
+        if (this.balanced) {
+            this.modified = false;
+            this.root = this.addToAVL(this.root, element);
+
+            if (!this.modified) {
+                return;
+            }
+
+        } else if (this.size == 0) {
+            this.root = this.allocate(element);
+
+        } else {
+            int current = this.root;
+
+            while (true) {
+                int comparison = Long.compare(element, this.items[current]);
+
+                if (comparison == 0) {
+                    return;
+
+                } else if (comparison < 0) {
+                    if (this.left[current] == NIL) {
+                        int node = this.allocate(element);
+                        this.left[current] = node;
+                        break;
+
+                    } else {
+                        current = this.left[current];
+                    }
+
+                } else {
+                    if (this.right[current] == NIL) {
+                        int node = this.allocate(element);
+                        this.right[current] = node;
+                        break;
+
+                    } else {
+                        current = this.right[current];
+                    }
+                }
+            }
+        }
+
+        this.size++;
+    }
+
+    boolean remove(long element) {
+        boolean removed;
+
+        if (this.balanced) {
+            this.modified = false;
+            this.root = this.removeFromAVL(this.root, element);
+            removed = this.modified;
+
+        } else {
+            removed = this.removeFromBST(element);
+        }
+
+        if (removed) {
+            this.size--;
+        }
+
+        return removed;
+    }
+
+    // Performs the action on each element in ascending order
+    void forEach(LongConsumer action) {
+        int[] stack = new int[16];
+        int depth = 0;
+        int current = this.root;
+
+        while (current != NIL || depth > 0) {
+            while (current != NIL) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+
+                stack[depth++] = current;
+                current = this.left[current];
+            }
+
+            current = stack[--depth];
+            action.accept(this.items[current]);
+            current = this.right[current];
+        }
+    }
+
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        StringBuilder array = new StringBuilder("[");
+
+        this.forEach(element -> {
+            if (array.length() > 1) {
+                array.append(", ");
+            }
+
+            array.append(element);
+        });
+
+        return array.append("]").toString();
+    }
+
+    // Returns a node for the element, reusing a removed node if there is one
+    private int allocate(long element) {
+        int node;
+
+        if (this.free != NIL) {
+            node = this.free;
+            this.free = this.left[node];
+
+        } else {
+            if (this.allocated == this.items.length) {
+                this.resizeArrays();
+            }
+
+            node = this.allocated++;
+        }
+
+        this.items[node] = element;
+        this.left[node] = NIL;
+        this.right[node] = NIL;
+
+        if (this.balanced) {
+            this.height[node] = 1;
+        }
+
+        return node;
+    }
+
+    private void release(int node) {
+        this.left[node] = this.free;
+        this.free = node;
+    }
+
+    private void resizeArrays() {
+        int capacity = this.items.length * 2;
+
+        this.items = Arrays.copyOf(this.items, capacity);
+        this.left = Arrays.copyOf(this.left, capacity);
+        this.right = Arrays.copyOf(this.right, capacity);
+
+        if (this.balanced) {
+            this.height = Arrays.copyOf(this.height, capacity);
+        }
+    }
+
+    // Walks the whole subtree with an explicit stack, since a plain binary search tree can be deep enough to overflow the call stack
+    private int height(int node) {
+        int[] nodes = new int[16];
+        int[] depths = new int[16];
+        int count = 0;
+        int height = 0;
+
+        if (node != NIL) {
+            nodes[count] = node;
+            depths[count] = 1;
+            count++;
+        }
+
+        while (count > 0) {
+            count--;
+            int current = nodes[count];
+            int depth = depths[count];
+            height = Math.max(height, depth);
+
+            if (count + 2 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                depths = Arrays.copyOf(depths, depths.length * 2);
+            }
+
+            if (this.left[current] != NIL) {
+                nodes[count] = this.left[current];
+                depths[count] = depth + 1;
+                count++;
+            }
+
+            if (this.right[current] != NIL) {
+                nodes[count] = this.right[current];
+                depths[count] = depth + 1;
+                count++;
+            }
+        }
+
+        return height;
+    }
+
+    private boolean removeFromBST(long element) {
+        int parent = NIL;
+        int current = this.root;
+
+        // Find the node corresponding to the element, along with its parent
+        while (current != NIL) {
+            int comparison = Long.compare(element, this.items[current]);
+
+            if (comparison == 0) {
+                break;
+            }
+
+            parent = current;
+
+            if (comparison < 0) {
+                current = this.left[current];
+
+            } else {
+                current = this.right[current];
+            }
+        }
+
+        if (current == NIL) {
+            return false;
+        }
+
+        // Find the node that takes the place of the removed node
+        int replacement;
+
+        if (this.left[current] == NIL) {
+            replacement = this.right[current];
+
+        } else if (this.right[current] == NIL) {
+            replacement = this.left[current];
+
+        } else { // "current" can be replaced with the right-most node of its left subtree
+            int rightMostParent = current;
+            int rightMost = this.left[current];
+
+            while (this.right[rightMost] != NIL) {
+                rightMostParent = rightMost;
+                rightMost = this.right[rightMost];
+            }
+
+            if (rightMostParent != current) {
+                this.right[rightMostParent] = this.left[rightMost];
+                this.left[rightMost] = this.left[current];
+            }
+
+            this.right[rightMost] = this.right[current];
+            replacement = rightMost;
+        }
+
+        if (parent == NIL) {
+            this.root = replacement;
+
+        } else if (this.left[parent] == current) {
+            this.left[parent] = replacement;
+
+        } else {
+            this.right[parent] = replacement;
+        }
+
+        this.release(current);
+
+        return true;
+    }
+
+    // Recursion is safe here, since the height of an AVL tree is logarithmic
+    private int addToAVL(int node, long element) {
+        if (node == NIL) {
+            this.modified = true;
+            return this.allocate(element);
+        }
+
+        int comparison = Long.compare(element, this.items[node]);
+
+        if (comparison == 0) {
+            return node;
+
+        } else if (comparison < 0) {
+            int child = this.addToAVL(this.left[node], element); // Evaluated first, since allocating may replace the arrays
+            this.left[node] = child;
+
+        } else {
+            int child = this.addToAVL(this.right[node], element);
+            this.right[node] = child;
+        }
+
+        return this.rebalance(node);
+    }
+
+    private int removeFromAVL(int node, long element) {
+        if (node == NIL) {
+            return NIL;
+        }
+
+        int comparison = Long.compare(element, this.items[node]);
+
+        if (comparison < 0) {
+            this.left[node] = this.removeFromAVL(this.left[node], element);
+
+        } else if (comparison > 0) {
+            this.right[node] = this.removeFromAVL(this.right[node], element);
+
+        } else {
+            int replacement;
+
+            if (this.left[node] == NIL) {
+                replacement = this.right[node];
+
+            } else if (this.right[node] == NIL) {
+                replacement = this.left[node];
+
+            } else { // Replace the node with the right-most node of its left subtree
+                int rightMost = this.left[node];
+
+                while (this.right[rightMost] != NIL) {
+                    rightMost = this.right[rightMost];
+                }
+
+                this.left[rightMost] = this.removeRightMost(this.left[node]);
+                this.right[rightMost] = this.right[node];
+                replacement = this.rebalance(rightMost);
+            }
+
+            this.release(node);
+            this.modified = true;
+
+            return replacement;
+        }
+
+        return this.rebalance(node);
+    }
+
+    // Detaches the right-most node of the subtree without releasing it, and returns the root of the subtree
+    private int removeRightMost(int node) {
+        if (this.right[node] == NIL) {
+            return this.left[node];
+        }
+
+        this.right[node] = this.removeRightMost(this.right[node]);
+
+        return this.rebalance(node);
+    }
+
+    // Restores the AVL invariant (the heights of both subtrees differ by at most 1) at "node", and returns the root of the subtree
+    private int rebalance(int node) {
+        this.updateHeight(node);
+        int balance = this.nodeHeight(this.left[node]) - this.nodeHeight(this.right[node]);
+
+        if (balance > 1) {
+            int child = this.left[node];
+
+            if (this.nodeHeight(this.left[child]) < this.nodeHeight(this.right[child])) { // Left-right case
+                this.left[node] = this.rotateLeft(child);
+            }
+
+            return this.rotateRight(node);
+
+        } else if (balance < -1) {
+            int child = this.right[node];
+
+            if (this.nodeHeight(this.right[child]) < this.nodeHeight(this.left[child])) { // Right-left case
+                this.right[node] = this.rotateRight(child);
+            }
+
+            return this.rotateLeft(node);
+
+        } else {
+            return node;
+        }
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = this.right[node];
+        this.right[node] = this.left[pivot];
+        this.left[pivot] = node;
+
+        this.updateHeight(node);
+        this.updateHeight(pivot);
+
+        return pivot;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = this.left[node];
+        this.left[node] = this.right[pivot];
+        this.right[pivot] = node;
+
+        this.updateHeight(node);
+        this.updateHeight(pivot);
+
+        return pivot;
+    }
+
+    private void updateHeight(int node) {
+        this.height[node] = (byte) (Math.max(this.nodeHeight(this.left[node]), this.nodeHeight(this.right[node])) + 1);
+    }
+
+    private int nodeHeight(int node) {
+        if (node == NIL) {
+            return 0;
+
+        } else {
+            return this.height[node];
+        }
+    }
+}
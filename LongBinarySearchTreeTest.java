@@ -0,0 +1,96 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LongBinarySearchTreeTest {
+    @Test
+    void size() {
+        LongBinarySearchTree bst = new LongBinarySearchTree();
+
+        Assertions.assertEquals(0, bst.size());
+
+        bst.add(7L);
+        bst.add(3L);
+        bst.add(10L);
+        bst.add(10L);
+
+        Assertions.assertEquals(3, bst.size());
+    }
+
+    @Test
+    void containsAddedElement() {
+        LongBinarySearchTree bst = new LongBinarySearchTree();
+
+        bst.add(Long.MAX_VALUE);
+        bst.add(Long.MIN_VALUE);
+
+        Assertions.assertTrue(bst.contains(Long.MAX_VALUE));
+        Assertions.assertTrue(bst.contains(Long.MIN_VALUE));
+        Assertions.assertFalse(bst.contains(0L));
+    }
+
+    @Test
+    void remove() {
+        LongBinarySearchTree bst = new LongBinarySearchTree();
+
+        bst.add(7L);
+        bst.add(3L);
+        bst.add(10L);
+
+        Assertions.assertTrue(bst.remove(7L));
+        Assertions.assertFalse(bst.remove(7L));
+        Assertions.assertEquals("[3, 10]", bst.toStringArray());
+    }
+
+    @Test
+    void clear() {
+        LongBinarySearchTree bst = new LongBinarySearchTree();
+
+        bst.add(7L);
+        bst.add(3L);
+
+        bst.clear();
+
+        Assertions.assertTrue(bst.isEmpty());
+        Assertions.assertFalse(bst.contains(7L));
+    }
+
+    @Test
+    void balancedHeightSortedInsertion() {
+        LongBinarySearchTree bst = new LongBinarySearchTree(true);
+        int n = 1 << 20;
+
+        for (long i = 0; i < n; i++) {
+            bst.add(i * 1000);
+        }
+
+        Assertions.assertEquals(n, bst.size());
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void randomOperations() {
+        for (boolean balanced : new boolean[]{false, true}) {
+            Random rng = new Random();
+            LongBinarySearchTree bst = new LongBinarySearchTree(balanced);
+            TreeSet<Long> expected = new TreeSet<>();
+
+            for (int i = 0; i < 10000; i++) {
+                long element = rng.nextInt(1000);
+
+                if (rng.nextBoolean()) {
+                    bst.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), bst.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), bst.size());
+            Assertions.assertEquals(expected.toString(), bst.toStringArray());
+        }
+    }
+}
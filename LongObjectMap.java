@@ -0,0 +1,229 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Open addressing from "long" keys to values, where the keys are stored in a primitive array, so probes compare keys without boxing them or following references
+// An entry whose key is 0 is empty, so the key 0 itself is kept outside the arrays, and removals shift the following entries back rather than leaving tombstones
+class LongObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double DEFAULT_LOADFACTOR = 0.75; // Higher than the other hash tables, since a probe only compares primitives in consecutive entries
+
+    private int size;
+    private int capacity;
+    private double loadFactor;
+    private int threshold;
+    private long[] keys;
+    private V[] values;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    LongObjectMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOADFACTOR);
+    }
+
+    LongObjectMap(int capacity) {
+        this(capacity, DEFAULT_LOADFACTOR);
+    }
+
+    LongObjectMap(int capacity, double loadFactor) {
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1 || Double.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("The load factor must be greater than 0, and less than 1");
+        }
+
+        this.size = 0;
+        this.capacity = Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+        this.loadFactor = loadFactor;
+        this.threshold = (int) (this.capacity * this.loadFactor);
+        this.keys = new long[this.capacity];
+        this.values = (V[]) new Object[this.capacity];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.values, null);
+        this.hasZeroKey = false;
+        this.zeroValue = null;
+        this.size = 0;
+    }
+
+    boolean contains(long key) {
+        if (key == 0) {
+            return this.hasZeroKey;
+        }
+
+        return this.keys[this.indexOf(key)] == key;
+    }
+
+    // Returns null if the key doesn't exist
+    V get(long key) {
+        if (key == 0) {
+            return this.zeroValue;
+        }
+
+        int index = this.indexOf(key);
+
+        return this.keys[index] == key ? this.values[index] : null;
+    }
+
+    void put(long key, V value) {
+        if (key == 0) {
+            if (!this.hasZeroKey) {
+                this.hasZeroKey = true;
+                this.size++;
+            }
+
+            this.zeroValue = value;
+            return;
+        }
+
+        int index = this.indexOf(key);
+
+        if (this.keys[index] == key) {
+            this.values[index] = value;
+            return;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.size++;
+
+        if (this.size >= this.threshold) {
+            this.resizeTable();
+        }
+    }
+
+    // Returns the value of the removed key, or null if the key doesn't exist
+    V remove(long key) {
+        if (key == 0) {
+            if (!this.hasZeroKey) {
+                return null;
+            }
+
+            V value = this.zeroValue;
+            this.hasZeroKey = false;
+            this.zeroValue = null;
+            this.size--;
+
+            return value;
+        }
+
+        int index = this.indexOf(key);
+
+        if (this.keys[index] != key) {
+            return null;
+        }
+
+        V value = this.values[index];
+        this.shiftBack(index);
+        this.size--;
+
+        return value;
+    }
+
+    // Returns the keys in no particular order
+    long[] keys() {
+        long[] keys = new long[this.size];
+        int count = 0;
+
+        if (this.hasZeroKey) {
+            keys[count++] = 0;
+        }
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] != 0) {
+                keys[count++] = this.keys[i];
+            }
+        }
+
+        return keys;
+    }
+
+    // Returns the values in the same order as "keys"
+    List<V> values() {
+        ArrayList<V> values = new ArrayList<>(this.size);
+
+        if (this.hasZeroKey) {
+            values.add(this.zeroValue);
+        }
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] != 0) {
+                values.add(this.values[i]);
+            }
+        }
+
+        return values;
+    }
+
+    // Returns the index of the key, or of the empty entry that ends its probe sequence
+    private int indexOf(long key) {
+        int mask = this.capacity - 1;
+        int index = hash(key) & mask;
+
+        while (this.keys[index] != 0 && this.keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    // Empties the entry, moving back each following entry whose home index isn't between the gap and itself, so that no probe sequence is broken
+    private void shiftBack(int gap) {
+        int mask = this.capacity - 1;
+        int next = (gap + 1) & mask;
+
+        while (this.keys[next] != 0) {
+            int home = hash(this.keys[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                this.keys[gap] = this.keys[next];
+                this.values[gap] = this.values[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        this.keys[gap] = 0;
+        this.values[gap] = null;
+    }
+
+    private void resizeTable() {
+        long[] oldKeys = this.keys;
+        V[] oldValues = this.values;
+
+        this.capacity *= 2;
+        this.threshold = (int) (this.capacity * this.loadFactor);
+        this.keys = new long[this.capacity];
+        this.values = (V[]) new Object[this.capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = this.indexOf(oldKeys[i]);
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Multiplies by the golden ratio and folds the high bits down, since linear probing degrades badly on keys that only differ in their high bits
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32));
+    }
+}
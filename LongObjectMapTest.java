@@ -0,0 +1,105 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LongObjectMapTest {
+    @Test
+    void sizeDefault() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void putAndGet() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        map.put(1, "a");
+        map.put(1, "b");
+        map.put(Long.MIN_VALUE, "c");
+
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals("b", map.get(1));
+        Assertions.assertEquals("c", map.get(Long.MIN_VALUE));
+        Assertions.assertNull(map.get(2));
+        Assertions.assertFalse(map.contains(2));
+    }
+
+    @Test
+    void zeroKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        map.put(0, "zero");
+
+        Assertions.assertTrue(map.contains(0));
+        Assertions.assertEquals("zero", map.get(0));
+        Assertions.assertEquals(1, map.size());
+
+        Assertions.assertEquals("zero", map.remove(0));
+        Assertions.assertNull(map.remove(0));
+        Assertions.assertFalse(map.contains(0));
+    }
+
+    @Test
+    void nullValue() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        map.put(5, null);
+
+        Assertions.assertTrue(map.contains(5));
+        Assertions.assertNull(map.get(5));
+        Assertions.assertEquals(1, map.size());
+    }
+
+    @Test
+    void removeAll() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        for (long i = 0; i < 1000; i++) {
+            map.put(i, i + "");
+        }
+
+        for (long i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i + "", map.remove(i));
+        }
+
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertEquals(0, map.keys().length);
+    }
+
+    @Test
+    void randomOperations() {
+        Random rng = new Random();
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        HashMap<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            long key = (long) rng.nextInt(2000) << 32; // Only the high bits differ
+
+            if (rng.nextInt(3) > 0) {
+                map.put(key, i);
+                expected.put(key, i);
+
+            } else {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+
+        for (long i = 0; i < 2000; i++) {
+            Assertions.assertEquals(expected.get(i << 32), map.get(i << 32));
+        }
+
+        long[] keys = map.keys();
+        List<Integer> values = map.values();
+
+        for (int i = 0; i < keys.length; i++) {
+            Assertions.assertEquals(expected.get(keys[i]), values.get(i));
+        }
+    }
+}
@@ -0,0 +1,448 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// A set of elements persisted in a file, which is memory-mapped on open rather than read, so opening takes O(1) regardless of the amount of elements
+// The image file holds the elements in ascending order, which is searched as an implicit balanced binary search tree whose nodes are only decoded when a lookup touches them
+// Changes are appended to a log file next to the image, and kept in memory until they're compacted into a fresh image
+// Each log record holds a checksum, so that whatever a crash leaves at the end of the log is dropped rather than applied
+class MappedBinarySearchTree<T extends Comparable<T>> implements Closeable {
+    // Converts elements to and from the bytes stored on disk
+    interface Codec<T> {
+        byte[] encode(T element);
+
+        T decode(byte[] bytes);
+    }
+
+    private static final int MAGIC = 0x42535431; // "BST1"
+    private static final int HEADER_BYTES = 8; // The magic number, and the amount of elements
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1 << 16;
+    private static final int CACHED_NODES = 1 << 16; // The amount of nodes at the top of the image tree that stay decoded after they're first touched
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 0;
+    private static final int RECORD_BYTES = 1 + 4 + 4; // The operation, the length of the element, and the checksum, which surround the encoded element
+
+    private Path imagePath;
+    private Path logPath;
+    private Codec<T> codec;
+    private int compactionThreshold; // The amount of log records that triggers a compaction
+    private MappedByteBuffer image;
+    private int imageSize; // The amount of elements in the image
+    private T[] cache; // Decoded nodes, indexed by their position in the implicit tree, where the root is 1 and the children of "i" are "2i" and "2i + 1"
+    private FileChannel log;
+    private int logRecords;
+    private BinarySearchTree<T> added; // Elements added since the image was written, none of which are in the image
+    private BinarySearchTree<T> removed; // Elements of the image removed since the image was written
+
+    MappedBinarySearchTree(Path path, Codec<T> codec) throws IOException {
+        this(path, codec, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    MappedBinarySearchTree(Path path, Codec<T> codec, int compactionThreshold) throws IOException {
+        super();
+
+        if (path == null || codec == null) {
+            throw new IllegalArgumentException("The path and the codec must not be null");
+        }
+
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("The compaction threshold must be greater than 0");
+        }
+
+        this.imagePath = path;
+        this.logPath = path.resolveSibling(path.getFileName() + ".log");
+        this.codec = codec;
+        this.compactionThreshold = compactionThreshold;
+        this.added = new BinarySearchTree<>(true);
+        this.removed = new BinarySearchTree<>(true);
+
+        if (!Files.exists(this.imagePath)) {
+            this.writeImage(this.imagePath, 0, null);
+        }
+
+        this.mapImage();
+        this.replayLog();
+        this.log = FileChannel.open(this.logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.log.position(this.log.size());
+    }
+
+    int size() {
+        return this.imageSize + this.added.size() - this.removed.size();
+    }
+
+    boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    boolean contains(T element) {
+        if (element == null) {
+            return false;
+
+        } else if (this.added.contains(element)) {
+            return true;
+
+        } else if (this.removed.contains(element)) {
+            return false;
+
+        } else {
+            return this.imageContains(element);
+        }
+    }
+
+    void add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        if (this.contains(element)) {
+            return;
+        }
+
+        this.append(ADD, element);
+
+        if (this.removed.contains(element)) {
+            this.removed.remove(element);
+
+        } else {
+            this.added.add(element);
+        }
+
+        this.compactIfNecessary();
+    }
+
+    boolean remove(T element) {
+        if (!this.contains(element)) {
+            return false;
+        }
+
+        this.append(REMOVE, element);
+
+        if (!this.added.remove(element)) {
+            this.removed.add(element);
+        }
+
+        this.compactIfNecessary();
+
+        return true;
+    }
+
+    // Forces the log to the storage device, so that every change so far survives a crash
+    void flush() throws IOException {
+        this.log.force(false);
+    }
+
+    // Writes every element into a fresh image, which atomically replaces the old one, and then empties the log
+    void compact() throws IOException {
+        Path temporary = this.imagePath.resolveSibling(this.imagePath.getFileName() + ".tmp");
+
+        // The old image stays in place if the new one can't be written
+        try {
+            this.writeImage(temporary, this.size(), this::forEach);
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        Files.move(temporary, this.imagePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.mapImage();
+        this.added.clear();
+        this.removed.clear();
+        this.log.truncate(0);
+        this.log.position(0);
+        this.logRecords = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.log.force(false);
+        this.log.close();
+    }
+
+    // Performs the action on each element in ascending order
+    void forEach(Consumer<? super T> action) {
+        Iterator<T> added = this.added.iterator();
+        T nextAdded = next(added);
+
+        for (int i = 0; i < this.imageSize; i++) {
+            T element = this.decode(i);
+
+            if (this.removed.contains(element)) {
+                continue;
+            }
+
+            while (nextAdded != null && nextAdded.compareTo(element) < 0) {
+                action.accept(nextAdded);
+                nextAdded = next(added);
+            }
+
+            action.accept(element);
+        }
+
+        while (nextAdded != null) {
+            action.accept(nextAdded);
+            nextAdded = next(added);
+        }
+    }
+
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        StringBuilder array = new StringBuilder("[");
+
+        this.forEach(element -> {
+            if (array.length() > 1) {
+                array.append(", ");
+            }
+
+            array.append(element);
+        });
+
+        return array.append("]").toString();
+    }
+
+    // Binary search over the sorted image, where the middle of each range is a node of the implicit tree
+    private boolean imageContains(T element) {
+        int low = 0;
+        int high = this.imageSize - 1;
+        int node = 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = element.compareTo(this.node(node, middle));
+
+            if (comparison == 0) {
+                return true;
+
+            } else if (comparison < 0) {
+                high = middle - 1;
+                node = 2 * node;
+
+            } else {
+                low = middle + 1;
+                node = 2 * node + 1;
+            }
+
+            // Nodes below the cached levels are never cached, so stop numbering them before the numbers overflow
+            if (node >= this.cache.length) {
+                node = this.cache.length;
+            }
+        }
+
+        return false;
+    }
+
+    // Returns the element of the implicit tree node, which is at the index of the image
+    private T node(int node, int index) {
+        if (node >= this.cache.length) {
+            return this.decode(index);
+        }
+
+        T element = this.cache[node];
+
+        if (element == null) {
+            element = this.decode(index);
+            this.cache[node] = element;
+        }
+
+        return element;
+    }
+
+    private T decode(int index) {
+        int offsets = HEADER_BYTES;
+        int data = offsets + 4 * (this.imageSize + 1);
+        int start = this.image.getInt(offsets + 4 * index);
+        int end = this.image.getInt(offsets + 4 * (index + 1));
+
+        byte[] bytes = new byte[end - start];
+        this.image.get(data + start, bytes);
+
+        return this.codec.decode(bytes);
+    }
+
+    private void mapImage() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.imagePath, StandardOpenOption.READ)) {
+            this.image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (this.image.capacity() < HEADER_BYTES || this.image.getInt(0) != MAGIC) {
+            throw new IOException("The file is not an image of a tree: " + this.imagePath);
+        }
+
+        this.imageSize = this.image.getInt(4);
+        this.cache = (T[]) new Comparable[Math.min(CACHED_NODES, this.imageSize + 1)];
+    }
+
+    // Writes the header, then the offset of each element relative to the data section, then the encoded elements
+    private void writeImage(Path path, int size, Consumer<Consumer<T>> elements) throws IOException {
+        int[] offsets = new int[size + 1];
+        long dataStart = HEADER_BYTES + 4L * (size + 1);
+
+        if (dataStart > Integer.MAX_VALUE) {
+            throw new IOException("The image must be smaller than 2 GiB, since it's mapped as a single buffer");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(dataStart);
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            if (elements != null) {
+                int[] count = new int[1];
+
+                elements.accept(element -> {
+                    try {
+                        byte[] bytes = this.codec.encode(element);
+                        long end = offsets[count[0]] + (long) bytes.length; // Summed as a "long", since an "int" would wrap around before reaching the limit
+
+                        // Checked before each element is written, since the offsets can't represent anything past the limit
+                        if (dataStart + end > Integer.MAX_VALUE) {
+                            throw new IOException("The image must be smaller than 2 GiB, since it's mapped as a single buffer");
+                        }
+
+                        data.write(bytes);
+                        offsets[count[0] + 1] = (int) end;
+                        count[0]++;
+
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            data.flush();
+
+            channel.position(0);
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            header.writeInt(MAGIC);
+            header.writeInt(size);
+
+            for (int offset : offsets) {
+                header.writeInt(offset);
+            }
+
+            header.flush();
+            channel.force(true);
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Applies every complete record of the log, and drops everything from the first record that was only partially written before a crash
+    // Each record sets whether the element is in the set, relative to the image, rather than toggling it, so replaying is correct even if the image already reflects the log
+    // That happens after a crash between "compact" moving the new image into place and truncating the log
+    private void replayLog() throws IOException {
+        if (!Files.exists(this.logPath)) {
+            return;
+        }
+
+        long length = Files.size(this.logPath);
+        long valid = 0;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.logPath)))) {
+            while (length - valid >= RECORD_BYTES) {
+                byte operation = input.readByte();
+                int count = input.readInt();
+
+                // A crash can leave zeros or garbage at the end rather than a short record, so the length is checked before it's trusted, and the checksum before the record is applied
+                if ((operation != ADD && operation != REMOVE) || count < 0 || count > length - valid - RECORD_BYTES) {
+                    break;
+                }
+
+                byte[] bytes = new byte[count];
+                input.readFully(bytes);
+
+                if (input.readInt() != checksum(operation, bytes)) {
+                    break;
+                }
+
+                T element = this.codec.decode(bytes);
+                boolean inImage = this.imageContains(element);
+
+                if (operation == ADD) {
+                    if (inImage) {
+                        this.removed.remove(element);
+
+                    } else {
+                        this.added.add(element);
+                    }
+
+                } else if (inImage) {
+                    this.removed.add(element);
+
+                } else {
+                    this.added.remove(element);
+                }
+
+                valid += RECORD_BYTES + bytes.length;
+                this.logRecords++;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(this.logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(valid);
+        }
+    }
+
+    private void append(byte operation, T element) {
+        byte[] bytes = this.codec.encode(element);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES + bytes.length);
+        record.put(operation).putInt(bytes.length).put(bytes).putInt(checksum(operation, bytes)).flip();
+
+        try {
+            while (record.hasRemaining()) {
+                this.log.write(record);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.logRecords++;
+    }
+
+    private void compactIfNecessary() {
+        if (this.logRecords >= this.compactionThreshold) {
+            try {
+                this.compact();
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // The CRC32 of the operation, the length and the encoded element of a log record
+    private static int checksum(byte operation, byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(operation);
+        crc.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        crc.update(bytes);
+
+        return (int) crc.getValue();
+    }
+
+    private static <T> T next(Iterator<T> iterator) {
+        if (iterator.hasNext()) {
+            return iterator.next();
+
+        } else {
+            return null;
+        }
+    }
+}
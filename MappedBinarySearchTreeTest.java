@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedBinarySearchTreeTest {
+    private static final MappedBinarySearchTree.Codec<Integer> INTEGER_CODEC = new MappedBinarySearchTree.Codec<>() {
+        @Override
+        public byte[] encode(Integer element) {
+            return ByteBuffer.allocate(4).putInt(element).array();
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    private static final MappedBinarySearchTree.Codec<String> STRING_CODEC = new MappedBinarySearchTree.Codec<>() {
+        @Override
+        public byte[] encode(String element) {
+            return element.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sizeDefault() throws IOException {
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(this.directory.resolve("tree"), INTEGER_CODEC)) {
+            Assertions.assertEquals(0, tree.size());
+            Assertions.assertTrue(tree.isEmpty());
+        }
+    }
+
+    @Test
+    void addAndRemove() throws IOException {
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(this.directory.resolve("tree"), INTEGER_CODEC)) {
+            tree.add(7);
+            tree.add(3);
+            tree.add(10);
+            tree.add(10);
+
+            Assertions.assertTrue(tree.remove(7));
+            Assertions.assertFalse(tree.remove(7));
+            Assertions.assertEquals(2, tree.size());
+            Assertions.assertEquals("[3, 10]", tree.toStringArray());
+        }
+    }
+
+    @Test
+    void reopenReplaysLog() throws IOException {
+        Path path = this.directory.resolve("tree");
+
+        try (MappedBinarySearchTree<String> tree = new MappedBinarySearchTree<>(path, STRING_CODEC)) {
+            tree.add("b");
+            tree.add("a");
+            tree.add("c");
+            tree.remove("b");
+        }
+
+        try (MappedBinarySearchTree<String> tree = new MappedBinarySearchTree<>(path, STRING_CODEC)) {
+            Assertions.assertEquals("[a, c]", tree.toStringArray());
+            Assertions.assertFalse(tree.contains("b"));
+        }
+    }
+
+    @Test
+    void reopenAfterCompaction() throws IOException {
+        Path path = this.directory.resolve("tree");
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            for (int i = 0; i < 100; i++) {
+                tree.add(i);
+            }
+
+            tree.compact();
+
+            // These changes are only in the log, on top of the compacted image
+            tree.remove(50);
+            tree.add(100);
+        }
+
+        Assertions.assertEquals(0, Files.size(path.resolveSibling("tree.log")) % (1 + 4 + 4 + 4));
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals(100, tree.size());
+            Assertions.assertFalse(tree.contains(50));
+            Assertions.assertTrue(tree.contains(0));
+            Assertions.assertTrue(tree.contains(99));
+            Assertions.assertTrue(tree.contains(100));
+        }
+    }
+
+    @Test
+    void crashBetweenCompactionAndLogTruncation() throws IOException {
+        Path path = this.directory.resolve("tree");
+        Path logPath = path.resolveSibling("tree.log");
+        byte[] log;
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            tree.add(1);
+            tree.add(2);
+            tree.remove(2);
+            tree.add(3);
+            tree.remove(3);
+            tree.add(3);
+            tree.flush();
+            log = Files.readAllBytes(logPath);
+
+            tree.compact();
+        }
+
+        // Simulate a crash after the new image was moved into place, but before the log was truncated
+        Files.write(logPath, log);
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals(2, tree.size());
+            Assertions.assertEquals("[1, 3]", tree.toStringArray());
+            Assertions.assertFalse(tree.contains(2));
+
+            tree.remove(1);
+            tree.add(2);
+        }
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals("[2, 3]", tree.toStringArray());
+        }
+    }
+
+    @Test
+    void failedCompactionKeepsImage() throws IOException {
+        Path path = this.directory.resolve("tree");
+        boolean[] failing = new boolean[1];
+        MappedBinarySearchTree.Codec<Integer> codec = new MappedBinarySearchTree.Codec<>() {
+            @Override
+            public byte[] encode(Integer element) {
+                if (failing[0] && element == 3) {
+                    throw new IllegalStateException("Encoding failed");
+                }
+
+                return INTEGER_CODEC.encode(element);
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return INTEGER_CODEC.decode(bytes);
+            }
+        };
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, codec)) {
+            tree.add(1);
+            tree.add(2);
+            tree.compact();
+            tree.add(3);
+
+            failing[0] = true;
+
+            Assertions.assertThrows(IllegalStateException.class, tree::compact);
+            Assertions.assertFalse(Files.exists(path.resolveSibling("tree.tmp")));
+            Assertions.assertEquals("[1, 2, 3]", tree.toStringArray());
+        }
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals("[1, 2, 3]", tree.toStringArray());
+        }
+    }
+
+    @Test
+    void partialLogRecordIsDropped() throws IOException {
+        Path path = this.directory.resolve("tree");
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            tree.add(1);
+            tree.add(2);
+        }
+
+        // Simulate a crash in the middle of writing a record
+        Files.write(path.resolveSibling("tree.log"), new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals("[1, 2]", tree.toStringArray());
+
+            tree.add(3);
+        }
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+            Assertions.assertEquals("[1, 2, 3]", tree.toStringArray());
+        }
+    }
+
+    @Test
+    void corruptLogTailIsDropped() throws IOException {
+        Path path = this.directory.resolve("tree");
+        Path logPath = path.resolveSibling("tree.log");
+        byte[][] tails = {
+            new byte[4096], // Preallocated space that was never written
+            {1, 0x7F, -1, -1, -1, 0, 0, 0, 0, 0, 0, 0, 0}, // A length far past the end of the log
+            {0, -1, -1, -1, -1, 0, 0, 0, 0}, // A negative length
+            {1, 0, 0, 0, 4, 0, 0, 0, 9, 0, 0, 0, 0} // A complete record with the wrong checksum
+        };
+
+        for (byte[] tail : tails) {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(logPath);
+
+            try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+                tree.add(1);
+                tree.add(2);
+            }
+
+            Files.write(logPath, tail, StandardOpenOption.APPEND);
+
+            try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+                Assertions.assertEquals("[1, 2]", tree.toStringArray());
+
+                tree.add(3);
+            }
+
+            try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC)) {
+                Assertions.assertEquals("[1, 2, 3]", tree.toStringArray());
+            }
+        }
+    }
+
+    @Test
+    void notAnImage() throws IOException {
+        Path path = this.directory.resolve("tree");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        Assertions.assertThrows(IOException.class, () -> new MappedBinarySearchTree<>(path, INTEGER_CODEC));
+    }
+
+    @Test
+    void randomOperationsWithAutomaticCompaction() throws IOException {
+        Path path = this.directory.resolve("tree");
+        Random rng = new Random();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC, 500)) {
+            for (int i = 0; i < 10000; i++) {
+                int element = rng.nextInt(1000);
+
+                if (rng.nextBoolean()) {
+                    tree.add(element);
+                    expected.add(element);
+
+                } else {
+                    Assertions.assertEquals(expected.remove(element), tree.remove(element));
+                }
+            }
+
+            Assertions.assertEquals(expected.size(), tree.size());
+            Assertions.assertEquals(expected.toString(), tree.toStringArray());
+        }
+
+        try (MappedBinarySearchTree<Integer> tree = new MappedBinarySearchTree<>(path, INTEGER_CODEC, 500)) {
+            Assertions.assertEquals(expected.toString(), tree.toStringArray());
+
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertEquals(expected.contains(i), tree.contains(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,445 @@
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// An immutable balanced binary search tree, where an update returns a new tree that shares every subtree off the path to the changed node
+// An update copies O(log n) nodes, and keeping an old version as a snapshot costs nothing extra
+class PersistentBinarySearchTree<T extends Comparable<T>> {
+    private static final class Node<T> { // Immutable, so that it can be shared between versions of the tree, and between threads
+        final T item;
+        final Node<T> left;
+        final Node<T> right;
+        final int height;
+        final int size; // The amount of nodes in the subtree rooted at this node
+
+        Node(T item, Node<T> left, Node<T> right) {
+            super();
+            this.item = item;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private static final class Split<T> { // The result of splitting a tree around an element
+        final Node<T> left; // The elements less than the element
+        final boolean found; // Whether or not the element was in the tree
+        final Node<T> right; // The elements greater than the element
+
+        Split(Node<T> left, boolean found, Node<T> right) {
+            super();
+            this.left = left;
+            this.found = found;
+            this.right = right;
+        }
+    }
+
+    private enum Operation {
+        UNION,
+        INTERSECTION,
+        DIFFERENCE
+    }
+
+    private static final int PARALLEL_THRESHOLD = 1 << 12; // The combined size below which set operations stop forking, since a task costs more than the work it saves
+
+    private final Node<T> root;
+    private final Comparator<? super T> comparator;
+
+    PersistentBinarySearchTree() {
+        this(Comparator.naturalOrder());
+    }
+
+    PersistentBinarySearchTree(Comparator<? super T> comparator) {
+        super();
+
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator must not be null");
+        }
+
+        this.root = null;
+        this.comparator = comparator;
+    }
+
+    private PersistentBinarySearchTree(Node<T> root, Comparator<? super T> comparator) {
+        super();
+        this.root = root;
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(this.root);
+    }
+
+    boolean isEmpty() {
+        return this.root == null;
+    }
+
+    int height() {
+        return height(this.root);
+    }
+
+    boolean contains(T element) {
+        if (element == null) {
+            return false;
+        }
+
+        Node<T> current = this.root;
+
+        while (current != null) {
+            int comparison = this.comparator.compare(element, current.item);
+
+            if (comparison == 0) {
+                return true;
+
+            } else if (comparison < 0) {
+                current = current.left;
+
+            } else {
+                current = current.right;
+            }
+        }
+
+        return false;
+    }
+
+    // Returns an empty tree with the same ordering
+    PersistentBinarySearchTree<T> clear() {
+        return this.withRoot(null);
+    }
+
+    // Returns a tree that also contains the element, or this tree if the element already exists
+    PersistentBinarySearchTree<T> add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        return this.withRoot(this.add(this.root, element));
+    }
+
+    // Returns a tree without the element, or this tree if the element doesn't exist
+    PersistentBinarySearchTree<T> remove(T element) {
+        if (element == null) {
+            return this;
+        }
+
+        return this.withRoot(this.remove(this.root, element));
+    }
+
+    // Returns a tree with the elements of both trees, in O(m * log(n / m + 1)) where m is the size of the smaller tree
+    PersistentBinarySearchTree<T> union(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.UNION, other, false);
+    }
+
+    // Returns a tree with the elements that are in both trees
+    PersistentBinarySearchTree<T> intersect(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.INTERSECTION, other, false);
+    }
+
+    // Returns a tree with the elements of this tree that aren't in the other tree
+    PersistentBinarySearchTree<T> difference(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.DIFFERENCE, other, false);
+    }
+
+    // Same as "union", but the independent halves of the recursion run in parallel on the common fork-join pool
+    PersistentBinarySearchTree<T> parallelUnion(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.UNION, other, true);
+    }
+
+    PersistentBinarySearchTree<T> parallelIntersect(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.INTERSECTION, other, true);
+    }
+
+    PersistentBinarySearchTree<T> parallelDifference(PersistentBinarySearchTree<T> other) {
+        return this.apply(Operation.DIFFERENCE, other, true);
+    }
+
+    // Returns a string array of the elements in ascending order
+    String toStringArray() {
+        StringBuilder array = new StringBuilder("[");
+        Node<T>[] stack = new Node[height(this.root)];
+        int depth = 0;
+        Node<T> current = this.root;
+
+        while (current != null || depth > 0) {
+            while (current != null) {
+                stack[depth++] = current;
+                current = current.left;
+            }
+
+            current = stack[--depth];
+
+            if (array.length() > 1) {
+                array.append(", ");
+            }
+
+            array.append(current.item);
+            current = current.right;
+        }
+
+        return array.append("]").toString();
+    }
+
+    private PersistentBinarySearchTree<T> apply(Operation operation, PersistentBinarySearchTree<T> other, boolean parallel) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument must not be null");
+        }
+
+        if (!this.comparator.equals(other.comparator)) {
+            throw new IllegalArgumentException("The trees must be ordered by the same comparator");
+        }
+
+        if (parallel) {
+            return this.withRoot(ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> this.apply(operation, this.root, other.root, true))));
+
+        } else {
+            return this.withRoot(this.apply(operation, this.root, other.root, false));
+        }
+    }
+
+    // Splits one tree around the root of the other, recurses on both sides, and joins the results around that root
+    private Node<T> apply(Operation operation, Node<T> a, Node<T> b, boolean parallel) {
+        if (a == null) {
+            if (operation == Operation.UNION) {
+                return b;
+
+            } else {
+                return null;
+            }
+
+        } else if (b == null) {
+            if (operation == Operation.INTERSECTION) {
+                return null;
+
+            } else {
+                return a;
+            }
+        }
+
+        Node<T> pivot;
+        Split<T> split;
+        Node<T> leftA;
+        Node<T> rightA;
+        Node<T> leftB;
+        Node<T> rightB;
+
+        if (operation == Operation.DIFFERENCE) { // Elements are only ever removed from "a", so the pivot comes from "b"
+            pivot = b;
+            split = this.split(a, b.item);
+            leftA = split.left;
+            rightA = split.right;
+            leftB = b.left;
+            rightB = b.right;
+
+        } else {
+            pivot = a;
+            split = this.split(b, a.item);
+            leftA = a.left;
+            rightA = a.right;
+            leftB = split.left;
+            rightB = split.right;
+        }
+
+        Node<T> left;
+        Node<T> right;
+
+        if (parallel && size(a) + size(b) > PARALLEL_THRESHOLD) {
+            ForkJoinTask<Node<T>> task = ForkJoinTask.adapt(() -> this.apply(operation, leftA, leftB, true)).fork();
+            right = this.apply(operation, rightA, rightB, true);
+            left = task.join();
+
+        } else {
+            left = this.apply(operation, leftA, leftB, parallel);
+            right = this.apply(operation, rightA, rightB, parallel);
+        }
+
+        if (operation == Operation.UNION || (operation == Operation.INTERSECTION && split.found)) {
+            return join(left, pivot.item, right);
+
+        } else {
+            return join(left, right);
+        }
+    }
+
+    // Splits the tree into the elements less than and greater than the element, in O(log n)
+    private Split<T> split(Node<T> node, T element) {
+        if (node == null) {
+            return new Split<>(null, false, null);
+        }
+
+        int comparison = this.comparator.compare(element, node.item);
+
+        if (comparison == 0) {
+            return new Split<>(node.left, true, node.right);
+
+        } else if (comparison < 0) {
+            Split<T> split = this.split(node.left, element);
+            return new Split<>(split.left, split.found, join(split.right, node.item, node.right));
+
+        } else {
+            Split<T> split = this.split(node.right, element);
+            return new Split<>(join(node.left, node.item, split.left), split.found, split.right);
+        }
+    }
+
+    private PersistentBinarySearchTree<T> withRoot(Node<T> root) {
+        if (root == this.root) {
+            return this;
+
+        } else {
+            return new PersistentBinarySearchTree<>(root, this.comparator);
+        }
+    }
+
+    // Returns the new root of the subtree, or the same root if the element already exists
+    private Node<T> add(Node<T> node, T element) {
+        if (node == null) {
+            return new Node<>(element, null, null);
+        }
+
+        int comparison = this.comparator.compare(element, node.item);
+
+        if (comparison == 0) {
+            return node;
+
+        } else if (comparison < 0) {
+            Node<T> left = this.add(node.left, element);
+
+            if (left == node.left) {
+                return node;
+            }
+
+            return balance(node.item, left, node.right);
+
+        } else {
+            Node<T> right = this.add(node.right, element);
+
+            if (right == node.right) {
+                return node;
+            }
+
+            return balance(node.item, node.left, right);
+        }
+    }
+
+    // Returns the new root of the subtree, or the same root if the element doesn't exist
+    private Node<T> remove(Node<T> node, T element) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = this.comparator.compare(element, node.item);
+
+        if (comparison < 0) {
+            Node<T> left = this.remove(node.left, element);
+
+            if (left == node.left) {
+                return node;
+            }
+
+            return balance(node.item, left, node.right);
+
+        } else if (comparison > 0) {
+            Node<T> right = this.remove(node.right, element);
+
+            if (right == node.right) {
+                return node;
+            }
+
+            return balance(node.item, node.left, right);
+
+        } else if (node.left == null) {
+            return node.right;
+
+        } else if (node.right == null) {
+            return node.left;
+
+        } else { // Replace the node with the right-most node of its left subtree
+            Node<T> rightMost = node.left;
+
+            while (rightMost.right != null) {
+                rightMost = rightMost.right;
+            }
+
+            return balance(rightMost.item, removeRightMost(node.left), node.right);
+        }
+    }
+
+    private static <T> Node<T> removeRightMost(Node<T> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+
+        return balance(node.item, node.left, removeRightMost(node.right));
+    }
+
+    // Joins two trees and an element between them, where every element of "left" is less than "item", and every element of "right" is greater
+    // Descends the spine of the taller tree until the heights are within 1, which takes O(|height(left) - height(right)|)
+    private static <T> Node<T> join(Node<T> left, T item, Node<T> right) {
+        if (height(left) > height(right) + 1) {
+            return balance(left.item, left.left, join(left.right, item, right));
+
+        } else if (height(right) > height(left) + 1) {
+            return balance(right.item, join(left, item, right.left), right.right);
+
+        } else {
+            return new Node<>(item, left, right);
+        }
+    }
+
+    // Joins two trees, where every element of "left" is less than every element of "right"
+    private static <T> Node<T> join(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+
+        Node<T> rightMost = left;
+
+        while (rightMost.right != null) {
+            rightMost = rightMost.right;
+        }
+
+        return join(removeRightMost(left), rightMost.item, right);
+    }
+
+    // Creates a node whose subtrees differ in height by at most 1, given subtrees that differ by at most 2
+    private static <T> Node<T> balance(T item, Node<T> left, Node<T> right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {
+            if (height(left.left) < height(left.right)) { // Left-right case
+                return new Node<>(left.right.item, new Node<>(left.item, left.left, left.right.left), new Node<>(item, left.right.right, right));
+            }
+
+            return new Node<>(left.item, left.left, new Node<>(item, left.right, right));
+
+        } else if (balance < -1) {
+            if (height(right.right) < height(right.left)) { // Right-left case
+                return new Node<>(right.left.item, new Node<>(item, left, right.left.left), new Node<>(right.item, right.left.right, right.right));
+            }
+
+            return new Node<>(right.item, new Node<>(item, left, right.left), right.right);
+
+        } else {
+            return new Node<>(item, left, right);
+        }
+    }
+
+    private static int height(Node<?> node) {
+        if (node == null) {
+            return 0;
+
+        } else {
+            return node.height;
+        }
+    }
+
+    private static int size(Node<?> node) {
+        if (node == null) {
+            return 0;
+
+        } else {
+            return node.size;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PersistentBinarySearchTreeTest {
+    @Test
+    void sizeDefault() {
+        PersistentBinarySearchTree<Integer> bst = new PersistentBinarySearchTree<>();
+
+        Assertions.assertEquals(0, bst.size());
+        Assertions.assertTrue(bst.isEmpty());
+    }
+
+    @Test
+    void addLeavesOldVersionUnchanged() {
+        PersistentBinarySearchTree<Integer> empty = new PersistentBinarySearchTree<>();
+        PersistentBinarySearchTree<Integer> one = empty.add(7);
+        PersistentBinarySearchTree<Integer> two = one.add(3);
+
+        Assertions.assertEquals("[]", empty.toStringArray());
+        Assertions.assertEquals("[7]", one.toStringArray());
+        Assertions.assertEquals("[3, 7]", two.toStringArray());
+        Assertions.assertFalse(one.contains(3));
+        Assertions.assertTrue(two.contains(3));
+    }
+
+    @Test
+    void removeLeavesOldVersionUnchanged() {
+        PersistentBinarySearchTree<Integer> bst = new PersistentBinarySearchTree<Integer>().add(7).add(3).add(10);
+        PersistentBinarySearchTree<Integer> removed = bst.remove(7);
+
+        Assertions.assertEquals("[3, 7, 10]", bst.toStringArray());
+        Assertions.assertEquals("[3, 10]", removed.toStringArray());
+    }
+
+    @Test
+    void unchangedTreeIsReturned() {
+        PersistentBinarySearchTree<Integer> bst = new PersistentBinarySearchTree<Integer>().add(7).add(3);
+
+        Assertions.assertSame(bst, bst.add(7));
+        Assertions.assertSame(bst, bst.remove(2));
+    }
+
+    @Test
+    void heightSortedInsertion() {
+        PersistentBinarySearchTree<Integer> bst = new PersistentBinarySearchTree<>();
+        int n = 1 << 16;
+
+        for (int i = 0; i < n; i++) {
+            bst = bst.add(i);
+        }
+
+        Assertions.assertEquals(n, bst.size());
+        Assertions.assertTrue(bst.height() < 1.4405 * (Math.log(n + 2) / Math.log(2)) - 0.3277);
+    }
+
+    @Test
+    void randomVersions() {
+        Random rng = new Random();
+        PersistentBinarySearchTree<Integer> bst = new PersistentBinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<PersistentBinarySearchTree<Integer>> versions = new ArrayList<>();
+        List<String> expectedVersions = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int element = rng.nextInt(1000);
+
+            if (rng.nextBoolean()) {
+                bst = bst.add(element);
+                expected.add(element);
+
+            } else {
+                bst = bst.remove(element);
+                expected.remove(element);
+            }
+
+            if (i % 500 == 0) {
+                versions.add(bst);
+                expectedVersions.add(expected.toString());
+            }
+        }
+
+        // Every earlier version must still hold the elements it had when it was taken
+        for (int i = 0; i < versions.size(); i++) {
+            Assertions.assertEquals(expectedVersions.get(i), versions.get(i).toStringArray());
+        }
+
+        Assertions.assertEquals(expected.size(), bst.size());
+    }
+
+    @Test
+    void setOperations() {
+        PersistentBinarySearchTree<Integer> a = new PersistentBinarySearchTree<Integer>().add(1).add(2).add(3).add(4);
+        PersistentBinarySearchTree<Integer> b = new PersistentBinarySearchTree<Integer>().add(3).add(4).add(5);
+
+        Assertions.assertEquals("[1, 2, 3, 4, 5]", a.union(b).toStringArray());
+        Assertions.assertEquals("[3, 4]", a.intersect(b).toStringArray());
+        Assertions.assertEquals("[1, 2]", a.difference(b).toStringArray());
+        Assertions.assertEquals("[5]", b.difference(a).toStringArray());
+    }
+
+    @Test
+    void setOperationsDifferentComparators() {
+        PersistentBinarySearchTree<Integer> a = new PersistentBinarySearchTree<>();
+        PersistentBinarySearchTree<Integer> b = new PersistentBinarySearchTree<>(Comparator.<Integer>reverseOrder());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> a.union(b));
+    }
+
+    @Test
+    void randomSetOperations() {
+        Random rng = new Random();
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            PersistentBinarySearchTree<Integer> a = new PersistentBinarySearchTree<>();
+            PersistentBinarySearchTree<Integer> b = new PersistentBinarySearchTree<>();
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+
+            // Sizes are uneven so that the smaller tree is split against the larger one
+            for (int i = 0; i < 50000; i++) {
+                int element = rng.nextInt(100000);
+                a = a.add(element);
+                expectedA.add(element);
+            }
+
+            for (int i = 0; i < 5000; i++) {
+                int element = rng.nextInt(100000);
+                b = b.add(element);
+                expectedB.add(element);
+            }
+
+            TreeSet<Integer> union = new TreeSet<>(expectedA);
+            union.addAll(expectedB);
+            TreeSet<Integer> intersection = new TreeSet<>(expectedA);
+            intersection.retainAll(expectedB);
+            TreeSet<Integer> difference = new TreeSet<>(expectedA);
+            difference.removeAll(expectedB);
+
+            PersistentBinarySearchTree<Integer> actualUnion;
+            PersistentBinarySearchTree<Integer> actualIntersection;
+            PersistentBinarySearchTree<Integer> actualDifference;
+
+            if (parallel) {
+                actualUnion = a.parallelUnion(b);
+                actualIntersection = a.parallelIntersect(b);
+                actualDifference = a.parallelDifference(b);
+
+            } else {
+                actualUnion = a.union(b);
+                actualIntersection = a.intersect(b);
+                actualDifference = a.difference(b);
+            }
+
+            Assertions.assertEquals(union.toString(), actualUnion.toStringArray());
+            Assertions.assertEquals(intersection.toString(), actualIntersection.toStringArray());
+            Assertions.assertEquals(difference.toString(), actualDifference.toStringArray());
+            Assertions.assertEquals(union.size(), actualUnion.size());
+
+            // The results must still be AVL trees
+            Assertions.assertTrue(actualUnion.height() < 1.4405 * (Math.log(union.size() + 2) / Math.log(2)) - 0.3277);
+            Assertions.assertTrue(actualDifference.height() < 1.4405 * (Math.log(difference.size() + 2) / Math.log(2)) - 0.3277);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Open addressing in the style of SwissTable, where every entry has a control byte that holds 7 bits of its hash, or marks it as empty or deleted
+// Probes read a group of 8 control bytes as a single "long", and compare all of them at once with bit manipulation (SWAR), so keys are only compared when their 7 bits of hash match
+class SwissHashTable<K, V> {
+    private static final int GROUP_WIDTH = 8; // The amount of control bytes in a "long"
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final byte EMPTY = (byte) 0xFF; // 1111_1111
+    private static final byte DELETED = (byte) 0x80; // 1000_0000, while full entries are 0xxx_xxxx
+    private static final long LSBS = 0x0101010101010101L; // The lowest bit of each byte
+    private static final long MSBS = 0x8080808080808080L; // The highest bit of each byte
+    private static final VarHandle GROUP = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private int size;
+    private int capacity; // Always a power of 2, and a multiple of the group width
+    private int growthLeft; // The amount of empty entries that can still be filled before the 7/8 load factor is reached
+    private byte[] control;
+    private K[] keys;
+    private V[] values;
+
+    SwissHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    SwissHashTable(int capacity) {
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+
+        this.allocate(Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(capacity - 1) << 1));
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        this.allocate(this.capacity);
+    }
+
+    boolean contains(K key) {
+        return this.find(key) != -1;
+    }
+
+    V get(K key) {
+        int index = this.find(key);
+
+        if (index == -1) {
+            return null;
+
+        } else {
+            return this.values[index];
+        }
+    }
+
+    V remove(K key) {
+        int index = this.find(key);
+
+        if (index == -1) {
+            return null;
+        }
+
+        V value = this.values[index];
+        this.keys[index] = null;
+        this.values[index] = null;
+        this.size--;
+
+        // A lookup stops at the first group with an empty entry, so if this group still has one, then no lookup can be probing past this entry, and it can become empty again
+        if (matchEmpty(this.group(index / GROUP_WIDTH)) != 0) {
+            this.control[index] = EMPTY;
+            this.growthLeft++;
+
+        } else {
+            this.control[index] = DELETED;
+        }
+
+        return value;
+    }
+
+    void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
+        }
+
+        int hash = hash(key);
+        int index = this.find(key, hash);
+
+        if (index != -1) {
+            this.values[index] = value;
+            return;
+        }
+
+        index = this.findInsertIndex(hash);
+
+        // Filling an empty entry, unlike a deleted entry, uses up room, so make room first if there's none left
+        if (this.control[index] == EMPTY && this.growthLeft == 0) {
+            this.resizeTable();
+            index = this.findInsertIndex(hash);
+        }
+
+        if (this.control[index] == EMPTY) {
+            this.growthLeft--;
+        }
+
+        this.control[index] = h2(hash);
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.size++;
+    }
+
+    List<K> keys() {
+        ArrayList<K> keys = new ArrayList<>();
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.control[i] >= 0) {
+                keys.add(this.keys[i]);
+            }
+        }
+
+        return keys;
+    }
+
+    List<V> values() {
+        ArrayList<V> values = new ArrayList<>();
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.control[i] >= 0) {
+                values.add(this.values[i]);
+            }
+        }
+
+        return values;
+    }
+
+    private void allocate(int capacity) {
+        this.size = 0;
+        this.capacity = capacity;
+        this.growthLeft = capacity - capacity / 8;
+        this.control = new byte[capacity];
+        this.keys = (K[]) new Object[capacity];
+        this.values = (V[]) new Object[capacity];
+        Arrays.fill(this.control, EMPTY);
+    }
+
+    private int find(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("The key must not be null");
+        }
+
+        return this.find(key, hash(key));
+    }
+
+    // Returns the index of the key, or -1 if the key doesn't exist
+    private int find(K key, int hash) {
+        int groupMask = this.capacity / GROUP_WIDTH - 1;
+        int group = h1(hash) & groupMask;
+        long pattern = (h2(hash) & 0xFFL) * LSBS; // The 7 bits of hash repeated in every byte
+
+        // Groups are probed at triangular number offsets, which visits every group when the amount of groups is a power of 2
+        for (int stride = 1; ; stride++) {
+            long word = this.group(group);
+
+            for (long matches = matchByte(word, pattern); matches != 0; matches &= matches - 1) {
+                int index = group * GROUP_WIDTH + (Long.numberOfTrailingZeros(matches) >>> 3);
+                K entry = this.keys[index];
+
+                // The match can be a false positive next to a true match, or an empty or deleted entry, so the key still has to be compared
+                if (entry != null && (entry == key || entry.equals(key))) {
+                    return index;
+                }
+            }
+
+            if (matchEmpty(word) != 0 || stride > groupMask) {
+                return -1;
+            }
+
+            group = (group + stride) & groupMask;
+        }
+    }
+
+    // Returns the first empty or deleted entry along the probe sequence of the hash
+    private int findInsertIndex(int hash) {
+        int groupMask = this.capacity / GROUP_WIDTH - 1;
+        int group = h1(hash) & groupMask;
+
+        for (int stride = 1; ; stride++) {
+            long matches = this.group(group) & MSBS; // Empty and deleted entries are the only ones with the highest bit set
+
+            if (matches != 0) {
+                return group * GROUP_WIDTH + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+
+            group = (group + stride) & groupMask;
+        }
+    }
+
+    private long group(int group) {
+        return (long) GROUP.get(this.control, group * GROUP_WIDTH);
+    }
+
+    // Doubles the capacity, unless enough entries are only deleted that rehashing at the same capacity makes room
+    private void resizeTable() {
+        int newCapacity = this.capacity;
+
+        if (this.size >= (this.capacity - this.capacity / 8) / 2) {
+            newCapacity *= 2;
+        }
+
+        byte[] oldControl = this.control;
+        K[] oldKeys = this.keys;
+        V[] oldValues = this.values;
+
+        this.allocate(newCapacity);
+
+        for (int i = 0; i < oldControl.length; i++) {
+            if (oldControl[i] >= 0) {
+                int hash = hash(oldKeys[i]);
+                int index = this.findInsertIndex(hash);
+
+                this.control[index] = h2(hash);
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+                this.growthLeft--;
+                this.size++;
+            }
+        }
+    }
+
+    // Returns a bit at the highest bit of each byte that's equal to the pattern, where a byte right after a true match can also be a false positive
+    private static long matchByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    // Returns a bit at the highest bit of each empty byte, which is the only value with both of its highest bits set
+    private static long matchEmpty(long word) {
+        return word & (word << 1) & MSBS;
+    }
+
+    // Mixes the bits of the hash code with the finalizer of MurmurHash3, since the groups and the control bytes each take different bits of the hash
+    private static int hash(Object key) {
+        return HashStrategy.mix32(key.hashCode());
+    }
+
+    private static int h1(int hash) { // Selects the first group to probe
+        return hash >>> 7;
+    }
+
+    private static byte h2(int hash) { // Stored in the control byte
+        return (byte) (hash & 0x7F);
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SwissHashTableTest {
+    // A key whose hash code is chosen by the test, so that collisions can be forced
+    private static final class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    @Test
+    void sizeOverwrite() {
+        SwissHashTable<Integer, String> table = new SwissHashTable<>();
+
+        table.put(1, "1");
+        table.put(1, "2");
+        table.put(1, "3");
+
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertEquals("3", table.get(1));
+    }
+
+    @Test
+    void containsUnaddedElement() {
+        SwissHashTable<Integer, String> table = new SwissHashTable<>();
+
+        table.put(1, "1");
+
+        Assertions.assertTrue(table.contains(1));
+        Assertions.assertFalse(table.contains(2));
+        Assertions.assertNull(table.get(2));
+    }
+
+    @Test
+    void removeAll() {
+        SwissHashTable<Integer, String> table = new SwissHashTable<>();
+
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i + "");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i + "", table.remove(i));
+        }
+
+        Assertions.assertTrue(table.isEmpty());
+        Assertions.assertNull(table.remove(0));
+    }
+
+    @Test
+    void clear() {
+        SwissHashTable<Integer, String> table = new SwissHashTable<>();
+
+        table.put(1, "1");
+        table.put(2, "2");
+
+        table.clear();
+
+        Assertions.assertTrue(table.isEmpty());
+        Assertions.assertFalse(table.contains(1));
+    }
+
+    @Test
+    void keysAndValues() {
+        SwissHashTable<Integer, String> table = new SwissHashTable<>();
+        List<Integer> expectedKeys = new ArrayList<>();
+        List<String> expectedValues = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i + "");
+            expectedKeys.add(i);
+            expectedValues.add(i + "");
+        }
+
+        List<Integer> keys = table.keys();
+        List<String> values = table.values();
+        Collections.sort(keys);
+        Collections.sort(values);
+        Collections.sort(expectedValues);
+
+        Assertions.assertEquals(expectedKeys, keys);
+        Assertions.assertEquals(expectedValues, values);
+    }
+
+    @Test
+    void identicalHashCodes() {
+        SwissHashTable<Key, Integer> table = new SwissHashTable<>();
+
+        // Every key has the same control byte and home group, so every probe has to compare keys
+        for (int i = 0; i < 200; i++) {
+            table.put(new Key(i, 42), i);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(i, table.get(new Key(i, 42)));
+        }
+
+        Assertions.assertFalse(table.contains(new Key(200, 42)));
+    }
+
+    @Test
+    void deleteHeavyChurn() {
+        SwissHashTable<Integer, Integer> table = new SwissHashTable<>();
+
+        // The size stays flat, so deleted entries must be reused or rehashed away rather than growing the table forever
+        for (int i = 0; i < 100000; i++) {
+            table.put(i, i);
+
+            if (i >= 10) {
+                Assertions.assertEquals(i - 10, table.remove(i - 10));
+            }
+        }
+
+        Assertions.assertEquals(10, table.size());
+        Assertions.assertFalse(table.contains(0));
+        Assertions.assertTrue(table.contains(99999));
+    }
+
+    @Test
+    void randomOperations() {
+        Random rng = new Random();
+        SwissHashTable<Key, Integer> table = new SwissHashTable<>();
+        HashMap<Key, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 50000; i++) {
+            int id = rng.nextInt(2000);
+            Key key = new Key(id, id % 97); // Few distinct hash codes, so groups fill with matching control bytes
+
+            if (rng.nextInt(3) > 0) {
+                table.put(key, i);
+                expected.put(key, i);
+
+            } else {
+                Assertions.assertEquals(expected.remove(key), table.remove(key));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), table.size());
+
+        for (int id = 0; id < 2000; id++) {
+            Key key = new Key(id, id % 97);
+            Assertions.assertEquals(expected.get(key), table.get(key));
+        }
+    }
+}